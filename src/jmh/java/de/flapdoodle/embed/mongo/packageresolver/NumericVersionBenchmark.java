@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parse and compare costs of {@link NumericVersion}, baseline in src/jmh/baseline/NumericVersionBenchmark.txt
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumericVersionBenchmark {
+
+	@Param({ "6.0.11", "7.0.0-rc10", "100.7.5", "latest" })
+	String version;
+
+	private NumericVersion parsed;
+	private NumericVersion other;
+
+	@Setup
+	public void setup() {
+		parsed = NumericVersion.of(version);
+		other = NumericVersion.of("7.0.2");
+	}
+
+	@Benchmark
+	public NumericVersion parse() {
+		return NumericVersion.of(version);
+	}
+
+	@Benchmark
+	public int compare() {
+		return parsed.compareTo(other);
+	}
+
+	@Benchmark
+	public boolean isOlderOrEqual() {
+		return parsed.isOlderOrEqual(7, 0, 2);
+	}
+
+	@Benchmark
+	public String asString() {
+		return parsed.asString();
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * single thread latency of a package resolution, run with -prof gc for the allocation rate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackageForBenchmark {
+
+	@Param
+	DistributionSamples.Representative sample;
+
+	private Distribution distribution;
+	private PlatformPackageResolver resolver;
+	private PlatformPackageResolver compiledResolver;
+	private CachingPackageResolver cachingResolver;
+	private MaterializedPackageResolver materializedResolver;
+
+	@Setup
+	public void setup() {
+		distribution = sample.distribution();
+		resolver = new PlatformPackageResolver(Command.MongoD);
+		compiledResolver = PlatformPackageResolver.compiled(Command.MongoD);
+		cachingResolver = CachingPackageResolver.of(new PlatformPackageResolver(Command.MongoD));
+		materializedResolver = MaterializedPackageResolver.of(PlatformPackageResolver.compiled(Command.MongoD));
+	}
+
+	@Benchmark
+	public PackageResolution rules() {
+		return resolver.resolve(distribution);
+	}
+
+	@Benchmark
+	public PackageResolution compiledRules() {
+		return compiledResolver.resolve(distribution);
+	}
+
+	@Benchmark
+	public PackageResolution cached() {
+		return cachingResolver.resolve(distribution);
+	}
+
+	@Benchmark
+	public PackageResolution materialized() {
+		return materializedResolver.resolve(distribution);
+	}
+}
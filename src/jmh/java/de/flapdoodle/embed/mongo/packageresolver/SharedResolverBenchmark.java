@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * throughput of one resolver shared by 1, 4, 16 and 64 threads with a mixed workload of package and feature resolution,
+ * without contention the throughput grows with the thread count until all cores are busy,
+ * run with -prof stack to see if threads are BLOCKED or WAITING (new caching layers should be added to {@link Resolver})
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedResolverBenchmark {
+
+	public enum Resolver {
+		RULES(() -> new PlatformPackageResolver(Command.MongoD)::resolve),
+		COMPILED(() -> PlatformPackageResolver.compiled(Command.MongoD)::resolve),
+		CACHED(() -> CachingPackageResolver.of(new PlatformPackageResolver(Command.MongoD))::resolve),
+		MATERIALIZED(() -> MaterializedPackageResolver.of(PlatformPackageResolver.compiled(Command.MongoD))::resolve);
+
+		private final Supplier<Function<Distribution, PackageResolution>> factory;
+
+		Resolver(Supplier<Function<Distribution, PackageResolution>> factory) {
+			this.factory = factory;
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Shared {
+		@Param
+		Resolver resolver;
+
+		Function<Distribution, PackageResolution> packageResolver;
+		final FeatureSetResolver featureSetResolver = DefaultFeatureSetResolver.INSTANCE;
+
+		@Setup
+		public void setup() {
+			packageResolver = resolver.factory.get();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Workload {
+		final Distribution[] distributions = distributions();
+		int next;
+
+		@Setup
+		public void setup() {
+			// every thread starts somewhere else in the workload
+			next = ThreadLocalRandom.current().nextInt(distributions.length);
+		}
+
+		Distribution next() {
+			Distribution ret = distributions[next];
+			next = (next + 1) % distributions.length;
+			return ret;
+		}
+
+		private static Distribution[] distributions() {
+			DistributionSamples.Representative[] samples = DistributionSamples.Representative.values();
+			Distribution[] ret = new Distribution[samples.length];
+			for (int i = 0; i < samples.length; i++) {
+				ret[i] = samples[i].distribution();
+			}
+			return ret;
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void threads_1(Shared shared, Workload workload, Blackhole blackhole) {
+		mixed(shared, workload, blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void threads_4(Shared shared, Workload workload, Blackhole blackhole) {
+		mixed(shared, workload, blackhole);
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void threads_16(Shared shared, Workload workload, Blackhole blackhole) {
+		mixed(shared, workload, blackhole);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public void threads_64(Shared shared, Workload workload, Blackhole blackhole) {
+		mixed(shared, workload, blackhole);
+	}
+
+	private static void mixed(Shared shared, Workload workload, Blackhole blackhole) {
+		Distribution distribution = workload.next();
+		blackhole.consume(shared.packageResolver.apply(distribution));
+		blackhole.consume(shared.featureSetResolver.featuresOf(distribution.version()));
+	}
+}
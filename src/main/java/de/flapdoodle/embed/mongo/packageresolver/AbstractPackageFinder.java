@@ -47,6 +47,11 @@ public abstract class AbstractPackageFinder implements PackageFinder, HasPlatfor
 		return rules.packageFor(distribution);
 	}
 
+	@Override
+	public final Optional<Package> packageFor(final ResolutionContext context) {
+		return rules.packageFor(context);
+	}
+
 	protected static PlatformMatch match(OS os, BitSize bitSize, CPUType cpuType, Version... versions) {
 		return PlatformMatch.withOs(os).withBitSize(bitSize).withCpuType(cpuType)
 			.withVersion(versions);
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.PackageResolver;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.Architecture;
+import de.flapdoodle.os.BitSize;
+import de.flapdoodle.os.OS;
+import de.flapdoodle.os.Platform;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * caches resolved packages of a delegate, the cache is capped at maxSize entries
+ * (if full, arbitrary entries are evicted, so a hit is one lookup without any lock), unresolvable distributions are cached too
+ */
+public final class CachingPackageResolver implements PackageResolver {
+
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private final PackageResolver delegate;
+	private final int maxSize;
+	private final ConcurrentMap<Key, PackageResolution> cache = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private CachingPackageResolver(PackageResolver delegate, int maxSize) {
+		if (maxSize < 1) throw new IllegalArgumentException("maxSize < 1: " + maxSize);
+		this.delegate = delegate;
+		this.maxSize = maxSize;
+	}
+
+	public PackageResolver delegate() {
+		return delegate;
+	}
+
+	@Override
+	public Package packageFor(Distribution distribution) {
+		return resolve(distribution).orElseThrow();
+	}
+
+	public PackageResolution resolve(Distribution distribution) {
+		Key key = Key.of(distribution);
+		PackageResolution cached = cache.get(key);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+		// concurrent misses of the same key keep the first result
+		PackageResolution resolved = resolveWithDelegate(distribution);
+		PackageResolution existing = cache.putIfAbsent(key, resolved);
+		if (existing != null) {
+			return existing;
+		}
+		if (cache.size() > maxSize) {
+			evict();
+		}
+		return resolved;
+	}
+
+	private void evict() {
+		Iterator<Key> keys = cache.keySet().iterator();
+		while (cache.size() > maxSize && keys.hasNext()) {
+			if (cache.remove(keys.next()) != null) {
+				evictions.increment();
+			}
+		}
+	}
+
+	private PackageResolution resolveWithDelegate(Distribution distribution) {
+		if (delegate instanceof PlatformPackageResolver) {
+			return ((PlatformPackageResolver) delegate).resolve(distribution);
+		}
+		try {
+			return PackageResolution.resolved(distribution, delegate.packageFor(distribution));
+		}
+		catch (UnresolvablePackageException ex) {
+			return ex.resolution();
+		}
+	}
+
+	public CacheStats stats() {
+		return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), cache.size());
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	public static CachingPackageResolver of(PackageResolver delegate) {
+		return of(delegate, DEFAULT_MAX_SIZE);
+	}
+
+	public static CachingPackageResolver of(PackageResolver delegate, int maxSize) {
+		return new CachingPackageResolver(delegate, maxSize);
+	}
+
+	/**
+	 * everything package resolution depends on: platform, version and tools version
+	 */
+	static final class Key {
+		private static final int BIT_SIZES = BitSize.values().length;
+
+		private final OS os;
+		private final int architecture;
+		private final de.flapdoodle.os.Distribution platformDistribution;
+		private final de.flapdoodle.os.Version platformVersion;
+		private final String version;
+		private final String toolsVersion;
+		private final int hashCode;
+
+		private Key(OS os, int architecture, de.flapdoodle.os.Distribution platformDistribution, de.flapdoodle.os.Version platformVersion,
+			String version, String toolsVersion) {
+			this.os = os;
+			this.architecture = architecture;
+			this.platformDistribution = platformDistribution;
+			this.platformVersion = platformVersion;
+			this.version = version;
+			this.toolsVersion = toolsVersion;
+			this.hashCode = Objects.hash(os, architecture, platformDistribution, platformVersion, version, toolsVersion);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key other = (Key) o;
+			return hashCode == other.hashCode
+				&& architecture == other.architecture
+				&& os.equals(other.os)
+				&& Objects.equals(platformDistribution, other.platformDistribution)
+				&& Objects.equals(platformVersion, other.platformVersion)
+				&& version.equals(other.version)
+				&& Objects.equals(toolsVersion, other.toolsVersion);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		static Key of(Distribution distribution) {
+			return of(distribution, true);
+		}
+
+		/**
+		 * @param withToolsVersion false if packages do not depend on the tools version (server commands)
+		 */
+		static Key of(Distribution distribution, boolean withToolsVersion) {
+			Platform platform = distribution.platform();
+			Architecture architecture = platform.architecture();
+			Version version = distribution.version();
+			String toolsVersion = null;
+			if (withToolsVersion && version instanceof HasMongotoolsPackage) {
+				Optional<? extends Version> mongotoolsVersion = ((HasMongotoolsPackage) version).mongotoolsVersion();
+				if (mongotoolsVersion.isPresent()) {
+					toolsVersion = mongotoolsVersion.get().asInDownloadPath();
+				}
+			}
+			return new Key(platform.operatingSystem(),
+				architecture.cpuType().ordinal() * BIT_SIZES + architecture.bitSize().ordinal(),
+				platform.distribution().orElse(null),
+				platform.version().orElse(null),
+				version.asInDownloadPath(),
+				toolsVersion);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.os.BitSize;
+import de.flapdoodle.os.CPUType;
+import de.flapdoodle.os.OS;
+import de.flapdoodle.os.Platform;
+import de.flapdoodle.os.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * indexed form of {@link PackageFinderRules}: rules are grouped by os, cpu type, bit size and platform version,
+ * so a lookup only evaluates rules which can match this platform - first match wins as before
+ */
+public final class CompiledPackageFinderRules implements PackageFinder, HasPlatformMatchRules {
+
+	private final PackageFinderRules rules;
+	private final List<Candidate> candidates;
+	private final ConcurrentMap<PlatformKey, Candidate[]> index = new ConcurrentHashMap<>();
+
+	CompiledPackageFinderRules(PackageFinderRules rules) {
+		this.rules = rules;
+		this.candidates = candidatesOf(rules);
+	}
+
+	@Override
+	public PackageFinderRules rules() {
+		return rules;
+	}
+
+	@Override
+	public Optional<Package> packageFor(Distribution distribution) {
+		return packageFor(ResolutionContext.of(distribution));
+	}
+
+	@Override
+	public Optional<Package> packageFor(ResolutionContext context) {
+		Candidate[] candidates = candidatesFor(context.distribution().platform());
+		if (context.isListening()) {
+			return packageFor(candidates, context, context.listener());
+		}
+		for (Candidate candidate : candidates) {
+			if (candidate.match.match(context)) {
+				Optional<Package> result = candidate.finder().packageFor(context);
+				if (result.isPresent()) {
+					return result;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * only rules which can match the platform are evaluated (and reported)
+	 */
+	private static Optional<Package> packageFor(Candidate[] candidates, ResolutionContext context, ResolutionListener listener) {
+		for (Candidate candidate : candidates) {
+			boolean matches = candidate.match.match(context);
+			listener.ruleEvaluated(candidate.rule, matches);
+			if (matches) {
+				Optional<Package> result = candidate.finder().packageFor(context);
+				listener.finderCalled(candidate.rule, result);
+				if (result.isPresent()) {
+					listener.ruleMatched(candidate.rule);
+					return result;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * version ranges of all rules (nested rules included) which can match this platform
+	 */
+	void collectVersionRanges(Platform platform, List<VersionRange> versions, List<ToolVersionRange> toolsVersions) {
+		for (Candidate candidate : candidatesFor(platform)) {
+			collectVersionRanges(candidate.match.source(), versions, toolsVersions);
+			PackageFinder finder = candidate.finder();
+			if (finder instanceof CompiledPackageFinderRules) {
+				((CompiledPackageFinderRules) finder).collectVersionRanges(platform, versions, toolsVersions);
+			}
+		}
+	}
+
+	private static void collectVersionRanges(DistributionMatch match, List<VersionRange> versions, List<ToolVersionRange> toolsVersions) {
+		if (match instanceof VersionRange) {
+			versions.add((VersionRange) match);
+		} else if (match instanceof ToolVersionRange) {
+			toolsVersions.add((ToolVersionRange) match);
+		} else if (match instanceof DistributionMatch.Any) {
+			for (DistributionMatch it : ((DistributionMatch.Any) match).matcher()) {
+				collectVersionRanges(it, versions, toolsVersions);
+			}
+		} else if (match instanceof DistributionMatch.AndThen) {
+			collectVersionRanges(((DistributionMatch.AndThen) match).first(), versions, toolsVersions);
+			collectVersionRanges(((DistributionMatch.AndThen) match).second(), versions, toolsVersions);
+		}
+	}
+
+	private Candidate[] candidatesFor(Platform platform) {
+		PlatformKey key = PlatformKey.of(platform);
+		Candidate[] matching = index.get(key);
+		if (matching == null) {
+			matching = index.computeIfAbsent(key, this::filterCandidates);
+		}
+		return matching;
+	}
+
+	private Candidate[] filterCandidates(PlatformKey key) {
+		return candidates.stream()
+			.filter(candidate -> !candidate.platformMatch.isPresent()
+				|| PlatformMatch.match(candidate.platformMatch.get(), key.os, key.cpuType, key.bitSize, Optional.ofNullable(key.version)))
+			.toArray(Candidate[]::new);
+	}
+
+	private static List<Candidate> candidatesOf(PackageFinderRules rules) {
+		List<Candidate> ret = new ArrayList<>();
+		for (PackageFinderRule rule : rules.rules()) {
+			DistributionMatch match = rule.match();
+			if (match instanceof PlatformMatch) {
+				ret.add(new Candidate(rule, Optional.of((PlatformMatch) match), DistributionMatch.all()));
+			} else if (match instanceof DistributionMatch.AndThen && ((DistributionMatch.AndThen) match).first() instanceof PlatformMatch) {
+				DistributionMatch.AndThen andThen = (DistributionMatch.AndThen) match;
+				ret.add(new Candidate(rule, Optional.of((PlatformMatch) andThen.first()), andThen.second()));
+			} else {
+				ret.add(new Candidate(rule, Optional.empty(), match));
+			}
+		}
+		return ret;
+	}
+
+	private static PackageFinder compiled(PackageFinder source) {
+		PackageFinder finder = LazyPackageFinder.unwrap(source);
+		// AbstractPackageFinder.packageFor just delegates to its rules, so these can be indexed too
+		return finder instanceof AbstractPackageFinder
+			? ((AbstractPackageFinder) finder).rules().compile()
+			: finder;
+	}
+
+	private static final class Candidate {
+		private final PackageFinderRule rule;
+		private final Optional<PlatformMatch> platformMatch;
+		private final MatchProgram match;
+		private volatile PackageFinder finder;
+
+		private Candidate(PackageFinderRule rule, Optional<PlatformMatch> platformMatch, DistributionMatch match) {
+			this.rule = rule;
+			this.platformMatch = platformMatch;
+			this.match = MatchProgram.of(match);
+		}
+
+		private PackageFinder finder() {
+			PackageFinder ret = finder;
+			if (ret == null) {
+				ret = compiled(rule.finder());
+				finder = ret;
+			}
+			return ret;
+		}
+	}
+
+	private static final class PlatformKey {
+		private final OS os;
+		private final CPUType cpuType;
+		private final BitSize bitSize;
+		private final Version version;
+		private final int hashCode;
+
+		private PlatformKey(OS os, CPUType cpuType, BitSize bitSize, Version version) {
+			this.os = os;
+			this.cpuType = cpuType;
+			this.bitSize = bitSize;
+			this.version = version;
+			this.hashCode = Objects.hash(os, cpuType, bitSize, version);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			PlatformKey other = (PlatformKey) o;
+			return cpuType == other.cpuType
+				&& bitSize == other.bitSize
+				&& os.equals(other.os)
+				&& Objects.equals(version, other.version);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		private static PlatformKey of(Platform platform) {
+			return new PlatformKey(platform.operatingSystem(), platform.architecture().cpuType(), platform.architecture().bitSize(),
+				platform.version().orElse(null));
+		}
+	}
+}
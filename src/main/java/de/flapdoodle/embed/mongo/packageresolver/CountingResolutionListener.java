@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * aggregates all notifications, see {@link #stats()}
+ */
+public final class CountingResolutionListener implements ResolutionListener {
+
+	private final LongAdder resolutions = new LongAdder();
+	private final LongAdder unresolved = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+	private final LongAdder rulesEvaluated = new LongAdder();
+	private final LongAdder rulesMatched = new LongAdder();
+	private final LongAdder fallbacks = new LongAdder();
+	// keyed by identity, so a match does not hash the whole rule tree, copied on write (there are only so many rules)
+	private volatile IdentityHashMap<PackageFinderRule, LongAdder> matchesByRule = new IdentityHashMap<>();
+
+	@Override
+	public void ruleEvaluated(PackageFinderRule rule, boolean matches) {
+		rulesEvaluated.increment();
+	}
+
+	@Override
+	public void ruleMatched(PackageFinderRule rule) {
+		rulesMatched.increment();
+		LongAdder matches = matchesByRule.get(rule);
+		if (matches == null) {
+			matches = matchesOf(rule);
+		}
+		matches.increment();
+	}
+
+	private synchronized LongAdder matchesOf(PackageFinderRule rule) {
+		LongAdder ret = matchesByRule.get(rule);
+		if (ret == null) {
+			IdentityHashMap<PackageFinderRule, LongAdder> copy = new IdentityHashMap<>(matchesByRule);
+			ret = new LongAdder();
+			copy.put(rule, ret);
+			matchesByRule = copy;
+		}
+		return ret;
+	}
+
+	@Override
+	public void fallbackTaken(PackageFinder finder, Distribution distribution, Distribution fallback) {
+		fallbacks.increment();
+	}
+
+	@Override
+	public void resolved(Distribution distribution, Optional<Package> result, long nanos) {
+		resolutions.increment();
+		if (!result.isPresent()) {
+			unresolved.increment();
+		}
+		this.nanos.add(nanos);
+	}
+
+	public ResolutionStats stats() {
+		ImmutableResolutionStats.Builder builder = ResolutionStats.builder()
+			.resolutions(resolutions.sum())
+			.unresolved(unresolved.sum())
+			.nanos(nanos.sum())
+			.rulesEvaluated(rulesEvaluated.sum())
+			.rulesMatched(rulesMatched.sum())
+			.fallbacks(fallbacks.sum());
+		// different rules may be equal, their matches are added up
+		Map<PackageFinderRule, Long> matches = new LinkedHashMap<>();
+		matchesByRule.forEach((rule, count) -> matches.merge(rule, count.sum(), Long::sum));
+		return builder.putAllMatchesByRule(matches)
+			.build();
+	}
+
+	public void reset() {
+		resolutions.reset();
+		unresolved.reset();
+		nanos.reset();
+		rulesEvaluated.reset();
+		rulesMatched.reset();
+		fallbacks.reset();
+		synchronized (this) {
+			matchesByRule = new IdentityHashMap<>();
+		}
+	}
+}
@@ -26,19 +26,39 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 public class DefaultFeatureSetResolver implements FeatureSetResolver {
 
 	private final List<FeatureSetRule> rules = featureSetRules();
 	private static final String MAX_VERSION = "100.0.0";
+	private static final int MAX_CACHED_FEATURE_SETS = 256;
+
+	/**
+	 * same version, same feature set
+	 */
+	private final ConcurrentMap<String, FeatureSet> featureSets = new ConcurrentHashMap<>();
 
 	public static DefaultFeatureSetResolver INSTANCE=new DefaultFeatureSetResolver();
 
 	@Override
 	public FeatureSet featuresOf(Version distribution) {
+		String asInDownloadPath = distribution.asInDownloadPath();
+		FeatureSet ret = featureSets.get(asInDownloadPath);
+		if (ret == null) {
+			ret = featuresOf(NumericVersion.of(asInDownloadPath));
+			if (featureSets.size() < MAX_CACHED_FEATURE_SETS) {
+				featureSets.putIfAbsent(asInDownloadPath, ret);
+			}
+		}
+		return ret;
+	}
+
+	private FeatureSet featuresOf(NumericVersion version) {
 		Set<Feature> features = rules.stream()
-			.filter(rule -> rule.versionRange().match(distribution))
+			.filter(rule -> rule.versionRange().match(version))
 			.flatMap(rule -> rule.features().stream())
 			.collect(Collectors.toSet());
 
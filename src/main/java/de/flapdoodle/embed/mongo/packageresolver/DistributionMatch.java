@@ -26,10 +26,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public interface DistributionMatch {
 	boolean match(Distribution distribution);
 
+	/**
+	 * override if the match depends on the parsed version
+	 */
+	default boolean match(ResolutionContext context) {
+		return match(context.distribution());
+	}
+
 	default DistributionMatch andThen(DistributionMatch other) {
 		return new AndThen(this, other);
 	}
@@ -39,11 +47,14 @@ public interface DistributionMatch {
 	}
 
 	static DistributionMatch any(DistributionMatch... matcher) {
-		return new Any(matcher);
+		return any(Arrays.asList(matcher));
 	}
 
 	static DistributionMatch any(List<? extends DistributionMatch> matcher) {
-		return new Any(matcher);
+		Optional<VersionRangeSet> versionRangeSet = VersionRangeSet.of(matcher);
+		return versionRangeSet.isPresent()
+			? versionRangeSet.get()
+			: new Any(matcher);
 	}
 
 	class AndThen implements DistributionMatch {
@@ -65,7 +76,12 @@ public interface DistributionMatch {
 
 		@Override
 		public boolean match(Distribution distribution) {
-			return first.match(distribution) && second.match(distribution);
+			return match(ResolutionContext.of(distribution));
+		}
+
+		@Override
+		public boolean match(ResolutionContext context) {
+			return first.match(context) && second.match(context);
 		}
 	}
 
@@ -74,6 +90,11 @@ public interface DistributionMatch {
 		public boolean match(Distribution distribution) {
 			return true;
 		}
+
+		@Override
+		public boolean match(ResolutionContext context) {
+			return true;
+		}
 	}
 
 	class Any implements DistributionMatch {
@@ -92,7 +113,15 @@ public interface DistributionMatch {
 		}
 		@Override
 		public boolean match(Distribution distribution) {
-			return matcher.stream().anyMatch(m -> m.match(distribution));
+			return match(ResolutionContext.of(distribution));
+		}
+
+		@Override
+		public boolean match(ResolutionContext context) {
+			for (DistributionMatch m : matcher) {
+				if (m.match(context)) return true;
+			}
+			return false;
 		}
 	}
 }
@@ -20,10 +20,16 @@
  */
 package de.flapdoodle.embed.mongo.packageresolver;
 
+import de.flapdoodle.os.Platform;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public final class ExplainRules {
@@ -32,17 +38,29 @@ public final class ExplainRules {
 	}
 
 	private static class Output {
-		private final StringBuilder sb=new StringBuilder();
+		private final Appendable out;
 		private final String NEW_LINE=System.lineSeparator();
 
-		public String asString() {
-			return sb.toString();
+		Output(Appendable out) {
+			this.out = out;
 		}
 
 		public Context root() {
 			return new Context(0);
 		}
 
+		void line(int level, String text) {
+			try {
+				for (int i = 0; i < level * 2; i++) {
+					out.append(' ');
+				}
+				out.append(text).append(NEW_LINE);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
 		class Context {
 
 			private final int level;
@@ -56,32 +74,122 @@ public final class ExplainRules {
 			}
 
 			public void matching(String explainMatch) {
-				sb.append(indent(level)).append(explainMatch).append(NEW_LINE);
+				line(level, explainMatch);
 			}
 
 			public void finder(String finderExplained) {
-				sb.append(indent(level+1)).append(finderExplained).append(NEW_LINE);
+				line(level+1, finderExplained);
 			}
 		}
 	}
 
+	/**
+	 * @see PackageFinderRules#explanation() for a cached explanation
+	 */
 	static String explain(PackageFinderRules rules) {
-		Output output = new Output();
-		explain(output.root(), rules);
-		return output.asString();
+		StringBuilder sb = new StringBuilder();
+		explain(new Output(sb).root(), rules);
+		return sb.toString();
+	}
+
+	/**
+	 * writes the explanation line by line
+	 */
+	static void explain(PackageFinderRules rules, Appendable out) throws IOException {
+		try {
+			explain(new Output(out).root(), rules);
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
 	static void explain(Output.Context context, PackageFinderRules rules) {
-		rules.rules().forEach(rule -> {
+		explain(context, rules, rule -> true);
+	}
+
+	static void explain(Output.Context context, PackageFinderRules rules, Predicate<PackageFinderRule> filter) {
+		for (PackageFinderRule rule : rules.rules()) {
+			if (!filter.test(rule)) continue;
+
 			context.matching(explainMatch(rule.match()));
-			PackageFinder finder = rule.finder();
+			PackageFinder finder = LazyPackageFinder.unwrap(rule.finder());
 
 			if (finder instanceof HasPlatformMatchRules) {
-				explain(context.oneDeeper(), ((HasPlatformMatchRules) finder).rules());
+				explain(context.oneDeeper(), ((HasPlatformMatchRules) finder).rules(), filter);
 			} else {
 				context.finder(packageFinderName(finder));
 			}
-		});
+		}
+	}
+
+	/**
+	 * explanation of a failed resolution: closest supported versions on this platform and
+	 * only the rules which can match os, cpu type and bit size of this platform
+	 */
+	static String explainFailure(CompiledPackageFinderRules rules, ResolutionContext context) {
+		Platform platform = context.distribution().platform();
+		List<VersionRange> versions = new ArrayList<>();
+		List<ToolVersionRange> toolsVersions = new ArrayList<>();
+		rules.collectVersionRanges(platform, versions, toolsVersions);
+
+		StringBuilder sb = new StringBuilder();
+		Output output = new Output(sb);
+		if (!versions.isEmpty()) {
+			output.line(0, "closest versions: " + explainClosest(versions, VersionRange::min, VersionRange::max, context.version()));
+		}
+		Optional<NumericVersion> toolsVersion = context.toolsVersion();
+		if (!toolsVersions.isEmpty() && toolsVersion.isPresent()) {
+			output.line(0, "closest tools versions: " + explainClosest(toolsVersions, ToolVersionRange::min, ToolVersionRange::max, toolsVersion.get()));
+		}
+		if (versions.isEmpty() && toolsVersions.isEmpty()) {
+			output.line(0, "no versions for this platform");
+		}
+		output.line(0, "rules for " + explainPlatform(platform) + ":");
+		explain(output.root().oneDeeper(), rules.rules(), rule -> canMatch(rule.match(), platform));
+		return sb.toString();
+	}
+
+	private static <T> String explainClosest(List<T> ranges, Function<T, NumericVersion> min, Function<T, NumericVersion> max, NumericVersion version) {
+		Optional<NumericVersion> older = ranges.stream()
+			.map(max)
+			.filter(it -> it.isOlder(version))
+			.max(Comparator.naturalOrder());
+		Optional<NumericVersion> newer = ranges.stream()
+			.map(min)
+			.filter(it -> it.isNewer(version))
+			.min(Comparator.naturalOrder());
+
+		List<String> parts = new ArrayList<>();
+		older.ifPresent(it -> parts.add(asHumanReadable(it) + " (older)"));
+		newer.ifPresent(it -> parts.add(asHumanReadable(it) + " (newer)"));
+		return !parts.isEmpty()
+			? String.join(", ", parts)
+			: "none";
+	}
+
+	private static String explainPlatform(Platform platform) {
+		return "os=" + platform.operatingSystem()
+			+ " and cpuType=" + platform.architecture().cpuType()
+			+ " and bitSize=" + platform.architecture().bitSize()
+			+ platform.version().map(version -> " and version=" + version).orElse("");
+	}
+
+	/**
+	 * false if os, cpu type or bit size of the platform does not match
+	 */
+	private static boolean canMatch(DistributionMatch match, Platform platform) {
+		if (match instanceof PlatformMatch) {
+			PlatformMatch platformMatch = (PlatformMatch) match;
+			return !PlatformMatch.dontMatch(platformMatch.os(), platform.operatingSystem())
+				&& !PlatformMatch.dontMatch(platformMatch.cpuType(), platform.architecture().cpuType())
+				&& !PlatformMatch.dontMatch(platformMatch.bitSize(), platform.architecture().bitSize());
+		}
+		if (match instanceof DistributionMatch.AndThen) {
+			DistributionMatch.AndThen andThen = (DistributionMatch.AndThen) match;
+			return canMatch(andThen.first(), platform) && canMatch(andThen.second(), platform);
+		}
+		return true;
 	}
 
 	private static String packageFinderName(PackageFinder packageFinder) {
@@ -91,15 +199,25 @@ public final class ExplainRules {
 	}
 
 	static String explainMatch(DistributionMatch match) {
-		return forType(DistributionMatch.class)
-			.mapIfInstance(PlatformMatch.class, ExplainRules::explainPlatformMatch)
-			.orMapIfInstance(DistributionMatch.AndThen.class, andThen -> "" + explainMatch(andThen.first()) + " and " + explainMatch(andThen.second()))
-			.orMapIfInstance(DistributionMatch.Any.class, any -> any.matcher().stream().map(ExplainRules::explainMatch).collect(Collectors.joining(" or ","(",")")))
-			.orMapIfInstance(VersionRange.class, ExplainRules::explainVersionRange)
-			.orMapIfInstance(ToolVersionRange.class, ExplainRules::explainToolsVersionRange)
-			.orMapIfInstance(DistributionMatch.class, it -> it.getClass().getSimpleName())
-			.apply(match)
-			.get();
+		if (match instanceof PlatformMatch) {
+			return explainPlatformMatch((PlatformMatch) match);
+		}
+		if (match instanceof DistributionMatch.AndThen) {
+			DistributionMatch.AndThen andThen = (DistributionMatch.AndThen) match;
+			return explainMatch(andThen.first()) + " and " + explainMatch(andThen.second());
+		}
+		if (match instanceof DistributionMatch.Any) {
+			return ((DistributionMatch.Any) match).matcher().stream()
+				.map(ExplainRules::explainMatch)
+				.collect(Collectors.joining(" or ", "(", ")"));
+		}
+		if (match instanceof VersionRange) {
+			return explainVersionRange((VersionRange) match);
+		}
+		if (match instanceof ToolVersionRange) {
+			return explainToolsVersionRange((ToolVersionRange) match);
+		}
+		return match.getClass().getSimpleName();
 	}
 
 	static String explainPlatformMatch(PlatformMatch match) {
@@ -136,28 +254,22 @@ public final class ExplainRules {
 		return version.asString();
 	}
 
-	private static String indent(int level) {
-		return repeat(' ', level * 2);
-	}
-
-	private static String repeat(char c, int level) {
-		char[] s = new char[level];
-		for (int i = 0; i < level; i++) {
-			s[i] = c;
-		}
-		return String.valueOf(s);
-	}
-
+	/**
+	 * @deprecated not used anymore, {@link #explainMatch(DistributionMatch)} checks the types directly
+	 */
+	@Deprecated
 	public static <S> HasOptionalBuilder<S> forType(Class<S> sourceType) {
 		return new HasOptionalBuilder<>();
 	}
 
+	@Deprecated
 	static class HasOptionalBuilder<S> {
 		<T extends S,V> HasOptionalResult<S, V> mapIfInstance(Class<T> type, Function<T, V> mapIfTypeMatches) {
 			return ExplainRules.mapIfInstance(type, mapIfTypeMatches);
 		}
 	}
 
+	@Deprecated
 	interface HasOptionalResult<S, V> extends Function<S, Optional<V>> {
 
 		default HasOptionalResult<S, V> or(HasOptionalResult<S, V> other) {
@@ -173,6 +285,7 @@ public final class ExplainRules {
 		}
 	}
 
+	@Deprecated
 	static <S,T extends S,V> HasOptionalResult<S, V> mapIfInstance(Class<T> type, Function<T, V> mapIfTypeMatches) {
 		return s -> type.isInstance(s)
 			? Optional.of(mapIfTypeMatches.apply(type.cast(s)))
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * creates the wrapped finder on first use, so rule trees for platforms which are never asked for are never built
+ */
+public final class LazyPackageFinder<T extends PackageFinder> implements PackageFinder {
+
+	private final Supplier<? extends T> factory;
+	private volatile T finder;
+
+	private LazyPackageFinder(Supplier<? extends T> factory) {
+		this.factory = factory;
+	}
+
+	public T get() {
+		T ret = finder;
+		if (ret == null) {
+			synchronized (this) {
+				ret = finder;
+				if (ret == null) {
+					ret = factory.get();
+					finder = ret;
+				}
+			}
+		}
+		return ret;
+	}
+
+	public boolean isInitialized() {
+		return finder != null;
+	}
+
+	@Override
+	public Optional<Package> packageFor(Distribution distribution) {
+		return get().packageFor(distribution);
+	}
+
+	@Override
+	public Optional<Package> packageFor(ResolutionContext context) {
+		return get().packageFor(context);
+	}
+
+	public static <T extends PackageFinder> LazyPackageFinder<T> of(Supplier<? extends T> factory) {
+		return new LazyPackageFinder<>(factory);
+	}
+
+	static PackageFinder unwrap(PackageFinder finder) {
+		return finder instanceof LazyPackageFinder
+			? ((LazyPackageFinder<?>) finder).get()
+			: finder;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link DistributionMatch} tree flattened into a list of instructions, evaluated in one loop:
+ * every test sets the result, {@link DistributionMatch.AndThen} and {@link DistributionMatch.Any} become
+ * conditional jumps, so evaluation order and short circuits are the same as in the tree
+ */
+final class MatchProgram implements DistributionMatch {
+
+	private static final int TRUE = 0;
+	private static final int FALSE = 1;
+	private static final int PLATFORM = 2;
+	private static final int VERSION_RANGE = 3;
+	private static final int TOOL_VERSION_RANGE = 4;
+	private static final int VERSION_RANGE_SET = 5;
+	private static final int DELEGATE = 6;
+	private static final int JUMP_IF_FALSE = 7;
+	private static final int JUMP_IF_TRUE = 8;
+
+	private final DistributionMatch source;
+	// pairs of opcode and argument (operand index or jump target)
+	private final int[] code;
+	private final Object[] operands;
+
+	private MatchProgram(DistributionMatch source, int[] code, Object[] operands) {
+		this.source = source;
+		this.code = code;
+		this.operands = operands;
+	}
+
+	DistributionMatch source() {
+		return source;
+	}
+
+	int instructions() {
+		return code.length / 2;
+	}
+
+	@Override
+	public boolean match(Distribution distribution) {
+		return match(ResolutionContext.of(distribution));
+	}
+
+	@Override
+	public boolean match(ResolutionContext context) {
+		final int[] code = this.code;
+		final Object[] operands = this.operands;
+		boolean result = true;
+		int pc = 0;
+		while (pc < code.length) {
+			int argument = code[pc + 1];
+			switch (code[pc]) {
+				case TRUE:
+					result = true;
+					break;
+				case FALSE:
+					result = false;
+					break;
+				case PLATFORM:
+					result = ((PlatformCriteria) operands[argument]).match(context.distribution().platform());
+					break;
+				case VERSION_RANGE:
+					result = ((VersionRange) operands[argument]).match(context.version());
+					break;
+				case TOOL_VERSION_RANGE:
+					Optional<NumericVersion> toolsVersion = context.toolsVersion();
+					result = toolsVersion.isPresent() && ((ToolVersionRange) operands[argument]).match(toolsVersion.get());
+					break;
+				case VERSION_RANGE_SET:
+					result = ((VersionRangeSet) operands[argument]).match(context);
+					break;
+				case DELEGATE:
+					result = ((DistributionMatch) operands[argument]).match(context);
+					break;
+				case JUMP_IF_FALSE:
+					if (!result) {
+						pc = argument;
+						continue;
+					}
+					break;
+				case JUMP_IF_TRUE:
+					if (result) {
+						pc = argument;
+						continue;
+					}
+					break;
+				default:
+					throw new IllegalStateException("unknown opcode " + code[pc] + " at " + pc);
+			}
+			pc += 2;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "MatchProgram" + Arrays.toString(code);
+	}
+
+	static MatchProgram of(DistributionMatch match) {
+		if (match instanceof MatchProgram) {
+			return (MatchProgram) match;
+		}
+		Compiler compiler = new Compiler();
+		compiler.emit(match);
+		return new MatchProgram(match, compiler.code(), compiler.operands.toArray());
+	}
+
+	private static final class Compiler {
+		private int[] code = new int[16];
+		private int size = 0;
+		private final List<Object> operands = new ArrayList<>();
+
+		private void emit(DistributionMatch match) {
+			if (match instanceof MatchProgram) {
+				emit(((MatchProgram) match).source());
+			} else if (match instanceof DistributionMatch.All) {
+				add(TRUE, 0);
+			} else if (match instanceof PlatformMatch) {
+				add(PLATFORM, operand(PlatformCriteria.of((PlatformMatch) match)));
+			} else if (match instanceof VersionRange) {
+				add(VERSION_RANGE, operand(match));
+			} else if (match instanceof ToolVersionRange) {
+				add(TOOL_VERSION_RANGE, operand(match));
+			} else if (match instanceof VersionRangeSet) {
+				add(VERSION_RANGE_SET, operand(match));
+			} else if (match instanceof DistributionMatch.AndThen) {
+				DistributionMatch.AndThen andThen = (DistributionMatch.AndThen) match;
+				emit(andThen.first());
+				int jump = add(JUMP_IF_FALSE, -1);
+				emit(andThen.second());
+				patch(jump);
+			} else if (match instanceof DistributionMatch.Any) {
+				emitAny(((DistributionMatch.Any) match).matcher());
+			} else {
+				add(DELEGATE, operand(match));
+			}
+		}
+
+		private void emitAny(List<DistributionMatch> matcher) {
+			if (matcher.isEmpty()) {
+				add(FALSE, 0);
+				return;
+			}
+			List<Integer> jumps = new ArrayList<>();
+			for (int i = 0; i < matcher.size(); i++) {
+				emit(matcher.get(i));
+				if (i + 1 < matcher.size()) {
+					jumps.add(add(JUMP_IF_TRUE, -1));
+				}
+			}
+			jumps.forEach(this::patch);
+		}
+
+		private int operand(Object operand) {
+			operands.add(operand);
+			return operands.size() - 1;
+		}
+
+		private int add(int opcode, int argument) {
+			if (size + 2 > code.length) {
+				code = Arrays.copyOf(code, code.length * 2);
+			}
+			code[size] = opcode;
+			code[size + 1] = argument;
+			size += 2;
+			return size - 2;
+		}
+
+		// jump to the next instruction emitted
+		private void patch(int jump) {
+			code[jump + 1] = size;
+		}
+
+		private int[] code() {
+			return Arrays.copyOf(code, size);
+		}
+	}
+}
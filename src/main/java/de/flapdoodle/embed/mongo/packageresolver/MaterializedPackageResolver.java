@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.PackageResolver;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.Architecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.Platform;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packages of all known platforms and versions resolved up front, so that resolving a known distribution is one lookup,
+ * all other distributions are resolved by the delegate
+ * <p>
+ * construction is expensive: {@link #of(PlatformPackageResolver)} resolves every known version on every known platform
+ * (some 20000 distributions, about a second or more on all cores), so create one instance and share it
+ */
+public final class MaterializedPackageResolver implements PackageResolver {
+
+	private final PlatformPackageResolver delegate;
+	// server packages do not depend on the tools version
+	private final boolean withToolsVersion;
+	private final Map<CachingPackageResolver.Key, Package> packages;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private MaterializedPackageResolver(PlatformPackageResolver delegate, Map<CachingPackageResolver.Key, Package> packages) {
+		this.delegate = delegate;
+		this.withToolsVersion = withToolsVersion(delegate);
+		this.packages = packages;
+	}
+
+	public PlatformPackageResolver delegate() {
+		return delegate;
+	}
+
+	@Override
+	public Package packageFor(Distribution distribution) {
+		return resolve(distribution).orElseThrow();
+	}
+
+	public PackageResolution resolve(Distribution distribution) {
+		Package found = packages.get(CachingPackageResolver.Key.of(distribution, withToolsVersion));
+		if (found != null) {
+			hits.increment();
+			return PackageResolution.resolved(distribution, found);
+		}
+		misses.increment();
+		return delegate.resolve(distribution);
+	}
+
+	public CacheStats stats() {
+		return CacheStats.of(hits.sum(), misses.sum(), 0, packages.size());
+	}
+
+	/**
+	 * every version of the rules of delegate on every known platform
+	 */
+	public static MaterializedPackageResolver of(PlatformPackageResolver delegate) {
+		return of(delegate, knownPlatforms(), knownVersions(delegate.rules()));
+	}
+
+	public static MaterializedPackageResolver of(PlatformPackageResolver delegate, Collection<? extends Platform> platforms, Collection<? extends Version> versions) {
+		List<Distribution> distributions = new ArrayList<>(platforms.size() * versions.size());
+		for (Platform platform : platforms) {
+			for (Version version : versions) {
+				distributions.add(Distribution.of(version, platform));
+			}
+		}
+
+		boolean withToolsVersion = withToolsVersion(delegate);
+		ConcurrentMap<CachingPackageResolver.Key, Package> packages = new ConcurrentHashMap<>();
+		// distributions without a package are left to the delegate
+		distributions.parallelStream()
+			.forEach(distribution -> delegate.resolve(distribution).asOptional()
+				.ifPresent(found -> packages.put(CachingPackageResolver.Key.of(distribution, withToolsVersion), found)));
+		return new MaterializedPackageResolver(delegate, Collections.unmodifiableMap(new HashMap<>(packages)));
+	}
+
+	private static boolean withToolsVersion(PlatformPackageResolver delegate) {
+		return RuleCatalog.Kind.of(delegate.command()) != RuleCatalog.Kind.Server;
+	}
+
+	/**
+	 * every os and architecture, with and without distribution and version, apart from linux without distribution:
+	 * this falls back to ubuntu with a warning, which should be logged if someone resolves it
+	 */
+	static List<Platform> knownPlatforms() {
+		List<Platform> ret = new ArrayList<>();
+		for (CommonOS os : CommonOS.values()) {
+			for (Architecture architecture : os.architectures()) {
+				ImmutablePlatform platform = ImmutablePlatform.builder()
+					.operatingSystem(os)
+					.architecture(architecture)
+					.build();
+				if (os != CommonOS.Linux) {
+					ret.add(platform);
+				}
+				os.distributions().forEach(distribution -> {
+					ret.add(platform.withDistribution(distribution));
+					distribution.versions().forEach(version -> ret.add(platform.withDistribution(distribution).withVersion(version)));
+				});
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * every version of every {@link VersionRange} in rules, a range is expanded if min and max only differ in the patch
+	 * version, else only min and max are used
+	 */
+	static List<Version> knownVersions(PackageFinderRules rules) {
+		Set<String> versions = new LinkedHashSet<>();
+		collectVersions(rules, versions);
+		List<Version> ret = new ArrayList<>(versions.size());
+		versions.forEach(version -> ret.add(Version.of(version)));
+		return ret;
+	}
+
+	private static void collectVersions(PackageFinderRules rules, Set<String> versions) {
+		for (PackageFinderRule rule : rules.rules()) {
+			collectVersions(rule.match(), versions);
+			PackageFinder finder = LazyPackageFinder.unwrap(rule.finder());
+			if (finder instanceof HasPlatformMatchRules) {
+				collectVersions(((HasPlatformMatchRules) finder).rules(), versions);
+			}
+		}
+	}
+
+	private static void collectVersions(DistributionMatch match, Set<String> versions) {
+		if (match instanceof DistributionMatch.AndThen) {
+			collectVersions(((DistributionMatch.AndThen) match).first(), versions);
+			collectVersions(((DistributionMatch.AndThen) match).second(), versions);
+		} else if (match instanceof DistributionMatch.Any) {
+			((DistributionMatch.Any) match).matcher().forEach(it -> collectVersions(it, versions));
+		} else if (match instanceof VersionRange) {
+			NumericVersion min = ((VersionRange) match).min();
+			NumericVersion max = ((VersionRange) match).max();
+			if (!min.build().isPresent() && !max.build().isPresent() && min.major() == max.major() && min.minor() == max.minor()) {
+				for (int patch = min.patch(); patch < max.patch(); patch++) {
+					versions.add(min.major() + "." + min.minor() + "." + patch);
+				}
+			} else {
+				versions.add(min.asString());
+			}
+			versions.add(max.asString());
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * resolves packages for many commands at once: commands of the same {@link RuleCatalog.Kind} share the same rules
+ * and only differ by the executable, so rules are evaluated once per kind and the package is bound to each command
+ */
+public final class MultiCommandPackageResolver {
+
+	private final Set<Command> commands;
+	private final Map<RuleCatalog.Kind, Command> representatives = new EnumMap<>(RuleCatalog.Kind.class);
+	private final Map<RuleCatalog.Kind, PlatformPackageResolver> resolvers = new EnumMap<>(RuleCatalog.Kind.class);
+	private final ConcurrentMap<Command, PlatformPackageResolver> unboundResolvers = new ConcurrentHashMap<>();
+
+	private MultiCommandPackageResolver(Set<Command> commands) {
+		if (commands.isEmpty()) throw new IllegalArgumentException("no command");
+		this.commands = Collections.unmodifiableSet(commands);
+		for (Command command : commands) {
+			RuleCatalog.Kind kind = RuleCatalog.Kind.of(command);
+			if (!representatives.containsKey(kind)) {
+				representatives.put(kind, command);
+				resolvers.put(kind, PlatformPackageResolver.compiled(command));
+			}
+		}
+	}
+
+	public Set<Command> commands() {
+		return commands;
+	}
+
+	/**
+	 * @throws UnresolvablePackageException if there is no package for any of these commands
+	 */
+	public Map<Command, Package> packagesFor(Distribution distribution) {
+		Map<Command, Package> ret = new EnumMap<>(Command.class);
+		resolve(distribution).forEach((command, resolution) -> ret.put(command, resolution.orElseThrow()));
+		return Collections.unmodifiableMap(ret);
+	}
+
+	/**
+	 * if the resolution of one kind fails with an exception, only the commands of this kind are unresolved
+	 * (see {@link PackageResolution#error()})
+	 */
+	public Map<Command, PackageResolution> resolve(Distribution distribution) {
+		Map<RuleCatalog.Kind, PackageResolution> resolutionByKind = new EnumMap<>(RuleCatalog.Kind.class);
+		Map<RuleCatalog.Kind, UrlTemplatePackageFinder> finderByKind = new EnumMap<>(RuleCatalog.Kind.class);
+		resolvers.forEach((kind, resolver) -> {
+			MatchedFinder matchedFinder = new MatchedFinder();
+			PackageResolution resolution;
+			try {
+				resolution = resolver.resolve(distribution, matchedFinder);
+			}
+			catch (RuntimeException ex) {
+				resolution = PackageResolution.failed(distribution, ex);
+			}
+			resolutionByKind.put(kind, resolution);
+			if (matchedFinder.finder != null) {
+				finderByKind.put(kind, matchedFinder.finder);
+			}
+		});
+
+		Map<Command, PackageResolution> ret = new EnumMap<>(Command.class);
+		for (Command command : commands) {
+			RuleCatalog.Kind kind = RuleCatalog.Kind.of(command);
+			ret.put(command, bind(resolutionByKind.get(kind), finderByKind.get(kind), representatives.get(kind), command));
+		}
+		return Collections.unmodifiableMap(ret);
+	}
+
+	private PackageResolution bind(PackageResolution resolution, UrlTemplatePackageFinder finder, Command resolvedFor, Command command) {
+		if (resolvedFor == command || !resolution.isResolved()) {
+			return resolution;
+		}
+		Optional<Package> rebound = finder != null
+			? finder.rebind(resolution.orElseThrow(), command)
+			: Optional.empty();
+		// package was not created by the rules of a catalog, so the file set is unknown
+		return rebound.isPresent()
+			? PackageResolution.resolved(resolution.distribution(), rebound.get())
+			: unboundResolvers.computeIfAbsent(command, PlatformPackageResolver::compiled).resolve(resolution.distribution());
+	}
+
+	/**
+	 * the finder which created the package, nested rules are reported first
+	 */
+	private static final class MatchedFinder implements ResolutionListener {
+		private UrlTemplatePackageFinder finder;
+
+		@Override
+		public void finderCalled(PackageFinderRule rule, Optional<Package> result) {
+			if (finder == null && result.isPresent() && rule.finder() instanceof UrlTemplatePackageFinder) {
+				finder = (UrlTemplatePackageFinder) rule.finder();
+			}
+		}
+	}
+
+	public static MultiCommandPackageResolver of(Command command, Command... commands) {
+		return new MultiCommandPackageResolver(EnumSet.of(command, commands));
+	}
+
+	public static MultiCommandPackageResolver of(Collection<Command> commands) {
+		return new MultiCommandPackageResolver(commands.isEmpty() ? EnumSet.noneOf(Command.class) : EnumSet.copyOf(commands));
+	}
+
+	public static MultiCommandPackageResolver all() {
+		return new MultiCommandPackageResolver(EnumSet.allOf(Command.class));
+	}
+}
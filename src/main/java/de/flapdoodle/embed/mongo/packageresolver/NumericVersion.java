@@ -39,18 +39,20 @@ public interface NumericVersion extends Comparable<NumericVersion> {
 
 	Optional<String> build();
 
+	/**
+	 * major, minor, patch and build rank packed into one long, so that comparing two packed versions
+	 * is the same as comparing the versions, if both are exactly packed
+	 */
+	@Value.Derived
+	@Value.Auxiliary
+	default long packed() {
+		return PackedVersion.pack(major(), minor(), patch(), build());
+	}
+
 	@Override
 	@Value.Auxiliary
 	default int compareTo(NumericVersion other) {
-		int mc = Integer.compare(major(), other.major());
-		int mm = Integer.compare(minor(), other.minor());
-		int mp = Integer.compare(patch(), other.patch());
-		int build = build().orElse("").compareTo(other.build().orElse(""));
-
-		return mc != 0 ? mc
-			: mm != 0 ? mm
-			: mp != 0 ? mp
-			: build;
+		return PackedVersion.compare(this, other);
 	}
 
 	static NumericVersion of(int major, int minor, int patch) {
@@ -95,7 +97,7 @@ public interface NumericVersion extends Comparable<NumericVersion> {
 	}
 
 	default boolean isNewerOrEqual(NumericVersion other) {
-		return isNewer(other) || isEqual(other);
+		return compareTo(other)>=0;
 	}
 
 	default boolean isNewer(NumericVersion other) {
@@ -103,7 +105,7 @@ public interface NumericVersion extends Comparable<NumericVersion> {
 	}
 
 	default boolean isOlderOrEqual(NumericVersion other) {
-		return isOlder(other) || isEqual(other);
+		return compareTo(other)<=0;
 	}
 
 	default boolean isOlder(NumericVersion other) {
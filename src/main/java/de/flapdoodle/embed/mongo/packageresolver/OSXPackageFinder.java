@@ -38,8 +38,10 @@ import java.util.Optional;
 */
 public class OSXPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(OSXPackageFinder.class, OSXPackageFinder::rules, OSXPackageFinder::fileSetOf);
+
   public OSXPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -48,8 +50,8 @@ public class OSXPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule devRule_OS_X_ARM_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.OS_X, BitSize.B64, CPUType.ARM)
@@ -217,10 +219,8 @@ public class OSXPackageFinder extends AbstractPackageFinder {
         .build();
 
 
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 tools_OS_X_ARM_B64
@@ -29,6 +29,13 @@ import java.util.function.Function;
 public interface PackageFinder {
   Optional<Package> packageFor(Distribution distribution);
 
+  /**
+   * override to pass the already parsed versions down to nested rules
+   */
+  default Optional<Package> packageFor(ResolutionContext context) {
+    return packageFor(context.distribution());
+  }
+
   class FailWithMessage implements PackageFinder, HasExplanation {
 
     private final Function<Distribution, String> messageFactory;
@@ -47,9 +47,20 @@ public abstract class PackageFinderRules {
 
   @Value.Auxiliary
   public Optional<Package> packageFor(Distribution distribution) {
-    for (PackageFinderRule rule : rules()) {
-      if (rule.match().match(distribution)) {
-        Optional<Package> result = rule.finder().packageFor(distribution);
+    return packageFor(ResolutionContext.of(distribution));
+  }
+
+  @Value.Auxiliary
+  public Optional<Package> packageFor(ResolutionContext context) {
+    List<PackageFinderRule> rules = rules();
+    if (context.isListening()) {
+      return packageFor(rules, context, context.listener());
+    }
+    // indexed, an iterator is not always optimized away
+    for (int i = 0; i < rules.size(); i++) {
+      PackageFinderRule rule = rules.get(i);
+      if (rule.match().match(context)) {
+        Optional<Package> result = rule.finder().packageFor(context);
         if (result.isPresent()) {
           return result;
         }
@@ -58,6 +69,38 @@ public abstract class PackageFinderRules {
     return Optional.empty();
   }
 
+  private static Optional<Package> packageFor(List<PackageFinderRule> rules, ResolutionContext context, ResolutionListener listener) {
+    for (PackageFinderRule rule : rules) {
+      boolean matches = rule.match().match(context);
+      listener.ruleEvaluated(rule, matches);
+      if (matches) {
+        Optional<Package> result = rule.finder().packageFor(context);
+        listener.finderCalled(rule, result);
+        if (result.isPresent()) {
+          listener.ruleMatched(rule);
+          return result;
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @return indexed form of these rules, nested rules of {@link AbstractPackageFinder}s are compiled on first use
+   */
+  @Value.Auxiliary
+  public CompiledPackageFinderRules compile() {
+    return new CompiledPackageFinderRules(this);
+  }
+
+  /**
+   * rules are immutable, so the explanation is computed once
+   */
+  @Value.Lazy
+  @Value.Auxiliary
+  public String explanation() {
+    return ExplainRules.explain(this);
+  }
 
   public static ImmutablePackageFinderRules empty() {
     return builder().build();
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * result of a package resolution, the explanation of a failed resolution is only rendered if someone asks for it
+ */
+public final class PackageResolution {
+
+	private final Distribution distribution;
+	private final Package result;
+	private final RuntimeException error;
+	private final Supplier<String> explanationFactory;
+	private volatile String explanation;
+
+	private PackageResolution(Distribution distribution, Package result, RuntimeException error, Supplier<String> explanationFactory) {
+		this.distribution = distribution;
+		this.result = result;
+		this.error = error;
+		this.explanationFactory = explanationFactory;
+	}
+
+	public Distribution distribution() {
+		return distribution;
+	}
+
+	public boolean isResolved() {
+		return result != null;
+	}
+
+	public Optional<Package> asOptional() {
+		return Optional.ofNullable(result);
+	}
+
+	/**
+	 * set if the resolution failed with an exception instead of finding no package
+	 */
+	public Optional<RuntimeException> error() {
+		return Optional.ofNullable(error);
+	}
+
+	public Package orElseThrow() {
+		if (result == null) {
+			throw new UnresolvablePackageException(this);
+		}
+		return result;
+	}
+
+	public String explanation() {
+		String ret = explanation;
+		if (ret == null) {
+			ret = explanationFactory.get();
+			explanation = ret;
+		}
+		return ret;
+	}
+
+	public static PackageResolution resolved(Distribution distribution, Package result) {
+		return new PackageResolution(distribution, result, null, () -> "resolved to " + result);
+	}
+
+	public static PackageResolution unresolved(Distribution distribution, Supplier<String> explanation) {
+		return new PackageResolution(distribution, null, null, explanation);
+	}
+
+	public static PackageResolution failed(Distribution distribution, RuntimeException error) {
+		return new PackageResolution(distribution, null, error, () -> "resolution failed: " + error);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import java.util.Optional;
+
+/**
+ * versions packed into one long: 17 bits major, 15 bits minor, 15 bits patch, 3 bits build kind, 4 bits build number,
+ * only versions without build or with a build alpha, beta or rc followed by one digit are packed exactly,
+ * so that comparing two exactly packed versions gives the same result as comparing the build strings
+ */
+final class PackedVersion {
+	private static final int MAJOR_BITS = 17;
+	private static final int MINOR_BITS = 15;
+	private static final int PATCH_BITS = 15;
+	private static final int BUILD_KIND_BITS = 3;
+	private static final int BUILD_NUMBER_BITS = 4;
+
+	private static final long BUILD_KIND_IRREGULAR = 7L << BUILD_NUMBER_BITS;
+	private static final long BUILD_KIND_MASK = ((1L << BUILD_KIND_BITS) - 1) << BUILD_NUMBER_BITS;
+
+	// in string order
+	private static final String[] BUILD_KINDS = { "alpha", "beta", "rc" };
+
+	private PackedVersion() {
+		// no instance
+	}
+
+	static int compare(NumericVersion left, NumericVersion right) {
+		if (isExact(left.packed()) && isExact(right.packed())) {
+			return Long.compare(left.packed(), right.packed());
+		}
+		int mc = Integer.compare(left.major(), right.major());
+		int mm = Integer.compare(left.minor(), right.minor());
+		int mp = Integer.compare(left.patch(), right.patch());
+		int build = left.build().orElse("").compareTo(right.build().orElse(""));
+
+		return mc != 0 ? mc
+			: mm != 0 ? mm
+			: mp != 0 ? mp
+			: build;
+	}
+
+	static boolean isBetween(NumericVersion min, NumericVersion value, NumericVersion max) {
+		long packed = value.packed();
+		long packedMin = min.packed();
+		long packedMax = max.packed();
+		if (isExact(packed) && isExact(packedMin) && isExact(packedMax)) {
+			return packedMin <= packed && packed <= packedMax;
+		}
+		return compare(min, value) <= 0 && compare(value, max) <= 0;
+	}
+
+	/**
+	 * @return true if no other version has the same packed representation and the packed order is the version order
+	 */
+	static boolean isExact(long packed) {
+		return (packed & BUILD_KIND_MASK) != BUILD_KIND_IRREGULAR;
+	}
+
+	static long pack(int major, int minor, int patch, Optional<String> build) {
+		long ret = clamp(major, MAJOR_BITS);
+		ret = (ret << MINOR_BITS) | clamp(minor, MINOR_BITS);
+		ret = (ret << PATCH_BITS) | clamp(patch, PATCH_BITS);
+		ret = ret << (BUILD_KIND_BITS + BUILD_NUMBER_BITS);
+		if (!fits(major, MAJOR_BITS) || !fits(minor, MINOR_BITS) || !fits(patch, PATCH_BITS)) {
+			return ret | BUILD_KIND_IRREGULAR;
+		}
+		return ret | (build.isPresent() ? buildRank(build.get()) : 0L);
+	}
+
+	private static boolean fits(int value, int bits) {
+		return value >= 0 && value < (1L << bits);
+	}
+
+	private static long clamp(int value, int bits) {
+		long max = (1L << bits) - 1;
+		return value < 0 ? 0 : Math.min(value, max);
+	}
+
+	private static long buildRank(String build) {
+		for (int kind = 0; kind < BUILD_KINDS.length; kind++) {
+			String prefix = BUILD_KINDS[kind];
+			// one digit only, rc10 is older than rc2 in string order
+			if (build.length() == prefix.length() + 1 && build.startsWith(prefix)) {
+				char number = build.charAt(prefix.length());
+				if (number >= '0' && number <= '9') {
+					return ((long) (kind + 1) << BUILD_NUMBER_BITS) | (number - '0');
+				}
+			}
+		}
+		return BUILD_KIND_IRREGULAR;
+	}
+}
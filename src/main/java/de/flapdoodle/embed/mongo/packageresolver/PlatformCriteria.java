@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.os.BitSize;
+import de.flapdoodle.os.CPUType;
+import de.flapdoodle.os.OS;
+import de.flapdoodle.os.Platform;
+import de.flapdoodle.os.Version;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link PlatformMatch} with its optional criteria unwrapped once, so that a match of a compiled rule does not allocate
+ */
+final class PlatformCriteria {
+
+	private final OS os;
+	private final CPUType cpuType;
+	private final BitSize bitSize;
+	private final Set<Version> versions;
+
+	private PlatformCriteria(OS os, CPUType cpuType, BitSize bitSize, Set<Version> versions) {
+		this.os = os;
+		this.cpuType = cpuType;
+		this.bitSize = bitSize;
+		this.versions = versions;
+	}
+
+	boolean match(Platform platform) {
+		if (os != null && !os.equals(platform.operatingSystem())) return false;
+		if (cpuType != null && cpuType != platform.architecture().cpuType()) return false;
+		if (bitSize != null && bitSize != platform.architecture().bitSize()) return false;
+		if (versions.isEmpty()) return true;
+		Optional<Version> version = platform.version();
+		return version.isPresent() && versions.contains(version.get());
+	}
+
+	static PlatformCriteria of(PlatformMatch match) {
+		return new PlatformCriteria(match.os().orElse(null), match.cpuType().orElse(null), match.bitSize().orElse(null), match.version());
+	}
+}
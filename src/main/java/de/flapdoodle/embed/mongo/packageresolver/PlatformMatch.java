@@ -23,6 +23,7 @@ package de.flapdoodle.embed.mongo.packageresolver;
 import de.flapdoodle.os.BitSize;
 import de.flapdoodle.os.CPUType;
 import de.flapdoodle.os.OS;
+import de.flapdoodle.os.Platform;
 import de.flapdoodle.os.Version;
 import org.immutables.value.Value;
 
@@ -54,11 +55,29 @@ public interface PlatformMatch extends DistributionMatch {
     return match(this, distribution);
   }
 
+  @Override
+  @Value.Auxiliary
+  default boolean match(ResolutionContext context) {
+    return match(this, context.distribution().platform());
+  }
+
   static boolean match(PlatformMatch match, de.flapdoodle.embed.process.distribution.Distribution distribution) {
-    if (dontMatch(match.os(), distribution.platform().operatingSystem())) return false;
-    if (dontMatch(match.cpuType(), distribution.platform().architecture().cpuType())) return false;
-    if (dontMatch(match.bitSize(), distribution.platform().architecture().bitSize())) return false;
-    if (dontMatch(match.version(), distribution.platform().version())) return false;
+    return match(match, distribution.platform());
+  }
+
+  static boolean match(PlatformMatch match, Platform platform) {
+    if (dontMatch(match.os(), platform.operatingSystem())) return false;
+    if (dontMatch(match.cpuType(), platform.architecture().cpuType())) return false;
+    if (dontMatch(match.bitSize(), platform.architecture().bitSize())) return false;
+    if (dontMatch(match.version(), platform.version())) return false;
+    return true;
+  }
+
+  static boolean match(PlatformMatch match, OS os, CPUType cpuType, BitSize bitSize, Optional<Version> version) {
+    if (dontMatch(match.os(), os)) return false;
+    if (dontMatch(match.cpuType(), cpuType)) return false;
+    if (dontMatch(match.bitSize(), bitSize)) return false;
+    if (dontMatch(match.version(), version)) return false;
     return true;
   }
 
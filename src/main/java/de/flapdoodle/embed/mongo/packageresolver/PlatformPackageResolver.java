@@ -26,7 +26,15 @@ import de.flapdoodle.embed.process.distribution.Distribution;
 import de.flapdoodle.embed.process.distribution.PackageResolver;
 import de.flapdoodle.os.CommonOS;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * bc mongodb decided to reinvent their artifact naming which is some kind of complex
@@ -36,32 +44,167 @@ public class PlatformPackageResolver implements PackageResolver, HasPlatformMatc
 
   private final Command command;
   private final PackageFinderRules rules;
+  private final LazyPackageFinder<CompiledPackageFinderRules> compiledRules;
+  private final boolean compiled;
+  private final PackageFinder finder;
+  private final ResolutionListener listener;
 
   public PlatformPackageResolver(Command command) {
+    this(command, rules(command), false);
+  }
+
+  private PlatformPackageResolver(Command command, PackageFinderRules rules, boolean compiled) {
+    this(command, rules, LazyPackageFinder.of(rules::compile), compiled, ResolutionListener.noop());
+  }
+
+  private PlatformPackageResolver(Command command, PackageFinderRules rules, LazyPackageFinder<CompiledPackageFinderRules> compiledRules,
+    boolean compiled, ResolutionListener listener) {
+    this.command = command;
+    this.rules = rules;
+    this.compiledRules = compiledRules;
+    this.compiled = compiled;
+    this.finder = compiled
+      ? compiledRules
+      : finderOf(rules);
+    this.listener = listener;
+  }
+
+  /**
+   * same rules, but resolved with an index per platform
+   * @see CompiledPackageFinderRules
+   */
+  public static PlatformPackageResolver compiled(Command command) {
+    return new PlatformPackageResolver(command, rules(command), true);
+  }
+
+  /**
+   * same rules (and index), every resolution is reported to listener
+   */
+  public PlatformPackageResolver withListener(ResolutionListener listener) {
+    return new PlatformPackageResolver(command, rules, compiledRules, compiled, listener);
+  }
+
+  private static PackageFinder finderOf(PackageFinderRules rules) {
+    // not a method reference, the context (parsed versions, listener) must be passed on
+    return new PackageFinder() {
+      @Override
+      public Optional<Package> packageFor(Distribution distribution) {
+        return rules.packageFor(distribution);
+      }
+
+      @Override
+      public Optional<Package> packageFor(ResolutionContext context) {
+        return rules.packageFor(context);
+      }
+    };
+  }
+
+  private static PackageFinderRules rules(Command command) {
     // TODO system property finder
 		// https://www.mongodb.org/dl/linux
     // https://www.mongodb.org/dl/osx
     // https://www.mongodb.org/dl/windows
 
-    this.command = command;
-    this.rules = PackageFinderRules.empty()
-        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Windows), new WindowsPackageFinder(command)))
-        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.OS_X), new OSXPackageFinder(command)))
-        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), new LinuxPackageFinder(command)))
-        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Solaris), new SolarisPackageFinder(command)));
+    // finders are created on first use, most environments only ever need one of them
+    return PackageFinderRules.empty()
+        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Windows), LazyPackageFinder.of(() -> new WindowsPackageFinder(command))))
+        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.OS_X), LazyPackageFinder.of(() -> new OSXPackageFinder(command))))
+        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), LazyPackageFinder.of(() -> new LinuxPackageFinder(command))))
+        .with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Solaris), LazyPackageFinder.of(() -> new SolarisPackageFinder(command))));
+  }
+
+  Command command() {
+    return command;
   }
 
   @Override
   public Package packageFor(Distribution distribution) {
-    Optional<Package> result = rules.packageFor(distribution);
-    return result.orElseThrow(() -> {
+    return resolve(distribution).orElseThrow();
+  }
 
-      String message = "could not resolve package for " + distribution + System.lineSeparator() +
-        "--------------" + System.lineSeparator() +
-        explain();
-      
-      return new IllegalArgumentException(message);
-    });
+  /**
+   * like {@link #packageFor(Distribution)}, but does not throw an exception if no package was found
+   */
+  public PackageResolution resolve(Distribution distribution) {
+    return resolve(finder, distribution);
+  }
+
+  /**
+   * resolves all distributions in parallel, the result keeps the order of the first occurrence of each distribution
+   */
+  public Map<Distribution, PackageResolution> resolveAll(Collection<? extends Distribution> distributions) {
+    List<Distribution> distinct = distributions.stream()
+      .distinct()
+      .collect(Collectors.toList());
+    List<PackageResolution> resolutions = resolveAll(distinct.stream())
+      .collect(Collectors.toList());
+
+    Map<Distribution, PackageResolution> ret = new LinkedHashMap<>();
+    for (PackageResolution resolution : resolutions) {
+      ret.put(resolution.distribution(), resolution);
+    }
+    return Collections.unmodifiableMap(ret);
+  }
+
+  /**
+   * resolves all distributions in parallel, results are in the order of the stream (if ordered)
+   * - rules are indexed by platform, so work is shared between distributions of the same platform
+   * - a failing resolution does not end the stream, its result records the error (see {@link PackageResolution#error()})
+   */
+  public Stream<PackageResolution> resolveAll(Stream<? extends Distribution> distributions) {
+    return distributions.parallel()
+      .map(this::resolveOrFailed);
+  }
+
+  private PackageResolution resolveOrFailed(Distribution distribution) {
+    try {
+      return resolve(compiledRules, distribution);
+    } catch (RuntimeException ex) {
+      return PackageResolution.failed(distribution, ex);
+    }
+  }
+
+  private PackageResolution resolve(PackageFinder finder, Distribution distribution) {
+    Optional<Package> result = listener != ResolutionListener.noop()
+      ? resolveListening(finder, distribution)
+      : finder.packageFor(ResolutionContext.of(distribution));
+    return result.isPresent()
+      ? PackageResolution.resolved(distribution, result.get())
+      : PackageResolution.unresolved(distribution, () -> explainFailure(distribution));
+  }
+
+  /**
+   * resolves with the index, every step is reported to listener (and not to the listener of this resolver)
+   */
+  PackageResolution resolve(Distribution distribution, ResolutionListener listener) {
+    Optional<Package> result = compiledRules.packageFor(ResolutionContext.of(distribution, listener));
+    return result.isPresent()
+      ? PackageResolution.resolved(distribution, result.get())
+      : PackageResolution.unresolved(distribution, () -> explainFailure(distribution));
+  }
+
+  private Optional<Package> resolveListening(PackageFinder finder, Distribution distribution) {
+    long start = System.nanoTime();
+    Optional<Package> result = finder.packageFor(ResolutionContext.of(distribution, listener));
+    listener.resolved(distribution, result, System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * resolves like {@link #resolve(Distribution)}, but records every rule visited,
+   * always with the rules (not the index) so no rule is skipped,
+   * if a finder fails the trace ends with the failed step (see {@link ResolutionTrace#failure()})
+   */
+  public ResolutionTrace trace(Distribution distribution) {
+    ResolutionTracer tracer = new ResolutionTracer(distribution);
+    Optional<Package> result;
+    try {
+      result = rules.packageFor(ResolutionContext.of(distribution, tracer));
+    } catch (RuntimeException ex) {
+      tracer.failed(ex);
+      result = Optional.empty();
+    }
+    return tracer.trace(result);
   }
 
   @Override
@@ -70,6 +213,20 @@ public class PlatformPackageResolver implements PackageResolver, HasPlatformMatc
   }
 
   public String explain() {
-    return ExplainRules.explain(this.rules);
+    return rules.explanation();
+  }
+
+  /**
+   * closest supported versions and the rules for os, cpu type and bit size of this distribution
+   */
+  public String explainFailure(Distribution distribution) {
+    return ExplainRules.explainFailure(compiledRules.get(), ResolutionContext.of(distribution));
+  }
+
+  /**
+   * writes {@link #explain()} line by line
+   */
+  public void explainTo(Appendable out) throws IOException {
+    ExplainRules.explain(rules, out);
   }
 }
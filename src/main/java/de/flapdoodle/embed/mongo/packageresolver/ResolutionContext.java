@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.Platform;
+
+import java.util.Optional;
+
+/**
+ * distribution to resolve, the version and tools version are parsed at most once per resolution
+ */
+public final class ResolutionContext {
+
+	private final Distribution distribution;
+	private final ParsedVersions versions;
+	private final ResolutionListener listener;
+
+	private ResolutionContext(Distribution distribution, ParsedVersions versions, ResolutionListener listener) {
+		this.distribution = distribution;
+		this.versions = versions;
+		this.listener = listener;
+	}
+
+	public Distribution distribution() {
+		return distribution;
+	}
+
+	public NumericVersion version() {
+		return versions.version();
+	}
+
+	public Optional<NumericVersion> toolsVersion() {
+		return versions.toolsVersion();
+	}
+
+	public ResolutionListener listener() {
+		return listener;
+	}
+
+	/**
+	 * false for {@link ResolutionListener#noop()}, so notifications can be skipped
+	 */
+	public boolean isListening() {
+		return listener != ResolutionListener.noop();
+	}
+
+	/**
+	 * same version (and already parsed versions) on another platform
+	 */
+	public ResolutionContext withPlatform(Platform platform) {
+		return new ResolutionContext(Distribution.of(distribution.version(), platform), versions, listener);
+	}
+
+	public static ResolutionContext of(Distribution distribution) {
+		return of(distribution, ResolutionListener.noop());
+	}
+
+	public static ResolutionContext of(Distribution distribution, ResolutionListener listener) {
+		return new ResolutionContext(distribution, new ParsedVersions(distribution.version()), listener);
+	}
+
+	private static final class ParsedVersions {
+		private final Version source;
+		private NumericVersion version;
+		private Optional<NumericVersion> toolsVersion;
+
+		private ParsedVersions(Version source) {
+			this.source = source;
+		}
+
+		private NumericVersion version() {
+			if (version == null) {
+				version = NumericVersion.of(source.asInDownloadPath());
+			}
+			return version;
+		}
+
+		private Optional<NumericVersion> toolsVersion() {
+			if (toolsVersion == null) {
+				toolsVersion = source instanceof HasMongotoolsPackage
+					? ((HasMongotoolsPackage) source).mongotoolsVersion().map(it -> NumericVersion.of(it.asInDownloadPath()))
+					: Optional.empty();
+			}
+			return toolsVersion;
+		}
+	}
+}
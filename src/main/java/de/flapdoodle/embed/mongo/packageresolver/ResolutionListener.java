@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+
+import java.util.Optional;
+
+/**
+ * notified while a distribution is resolved, see {@link PlatformPackageResolver#withListener(ResolutionListener)},
+ * implementations must be thread safe
+ */
+public interface ResolutionListener {
+
+	/**
+	 * @param matches true if the match of this rule matched (the finder may still not find a package)
+	 */
+	default void ruleEvaluated(PackageFinderRule rule, boolean matches) {
+	}
+
+	/**
+	 * finder of a matching rule returned, nested rules are reported before
+	 */
+	default void finderCalled(PackageFinderRule rule, Optional<Package> result) {
+	}
+
+	/**
+	 * rule matched and its finder found a package, nested rules are reported before their parent rule
+	 */
+	default void ruleMatched(PackageFinderRule rule) {
+	}
+
+	/**
+	 * a delegating finder resolves the distribution as another distribution (e.g. linux mint as ubuntu)
+	 */
+	default void fallbackTaken(PackageFinder finder, Distribution distribution, Distribution fallback) {
+	}
+
+	default void resolved(Distribution distribution, Optional<Package> result, long nanos) {
+	}
+
+	/**
+	 * does nothing, resolution skips all notifications (and time measurement) for this listener
+	 */
+	static ResolutionListener noop() {
+		return Noop.INSTANCE;
+	}
+
+	final class Noop implements ResolutionListener {
+		private static final Noop INSTANCE = new Noop();
+
+		private Noop() {
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * path through the rules of a resolution, see {@link PlatformPackageResolver#trace(Distribution)}
+ */
+@Value.Immutable
+public interface ResolutionTrace {
+	Distribution distribution();
+
+	Optional<Package> result();
+
+	/**
+	 * top level rules in evaluation order
+	 */
+	List<Step> steps();
+
+	/**
+	 * innermost step which found the package
+	 */
+	default Optional<Step> producer() {
+		return producer(steps());
+	}
+
+	/**
+	 * step whose finder failed with an exception, the trace ends there
+	 */
+	default Optional<Step> failure() {
+		return failure(steps());
+	}
+
+	static Optional<Step> failure(List<Step> steps) {
+		for (Step step : steps) {
+			if (step.error().isPresent()) {
+				return Optional.of(step);
+			}
+			Optional<Step> nested = failure(step.nested());
+			if (nested.isPresent()) {
+				return nested;
+			}
+		}
+		return Optional.empty();
+	}
+
+	static Optional<Step> producer(List<Step> steps) {
+		for (Step step : steps) {
+			if (step.result().isPresent()) {
+				Optional<Step> nested = producer(step.nested());
+				return nested.isPresent() ? nested : Optional.of(step);
+			}
+		}
+		return Optional.empty();
+	}
+
+	static ImmutableResolutionTrace.Builder builder() {
+		return ImmutableResolutionTrace.builder();
+	}
+
+	@Value.Immutable
+	interface Step {
+		PackageFinderRule rule();
+
+		/**
+		 * empty if the rule matched
+		 */
+		Optional<Predicate> rejectedBy();
+
+		/**
+		 * distribution a delegating finder resolved instead (e.g. ubuntu for linux mint)
+		 */
+		Optional<Distribution> fallback();
+
+		/**
+		 * rules evaluated by the finder of this rule
+		 */
+		List<Step> nested();
+
+		/**
+		 * package found by the finder of this rule
+		 */
+		Optional<Package> result();
+
+		/**
+		 * exception thrown by the finder of this rule
+		 */
+		Optional<RuntimeException> error();
+
+		default boolean matches() {
+			return !rejectedBy().isPresent();
+		}
+
+		default PackageFinder finder() {
+			return LazyPackageFinder.unwrap(rule().finder());
+		}
+
+		static ImmutableStep.Builder builder() {
+			return ImmutableStep.builder();
+		}
+	}
+
+	/**
+	 * part of a rule match which did not match
+	 */
+	enum Predicate {
+		OS,
+		CPU_TYPE,
+		BIT_SIZE,
+		PLATFORM_VERSION,
+		VERSION_RANGE,
+		TOOLS_VERSION_RANGE,
+		/**
+		 * any other {@link DistributionMatch}
+		 */
+		OTHER
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.os.Platform;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * records a {@link ResolutionTrace}, one tracer per resolution (not thread safe)
+ */
+final class ResolutionTracer implements ResolutionListener {
+
+	private final Distribution distribution;
+	private final List<Node> steps = new ArrayList<>();
+	private final Deque<Node> matching = new ArrayDeque<>();
+
+	ResolutionTracer(Distribution distribution) {
+		this.distribution = distribution;
+	}
+
+	@Override
+	public void ruleEvaluated(PackageFinderRule rule, boolean matches) {
+		Node node = new Node(rule);
+		if (!matches) {
+			node.rejectedBy = rejectedBy(rule.match(), ResolutionContext.of(currentDistribution()));
+		}
+		if (matching.isEmpty()) {
+			steps.add(node);
+		} else {
+			matching.peek().nested.add(node);
+		}
+		if (matches) {
+			matching.push(node);
+		}
+	}
+
+	@Override
+	public void finderCalled(PackageFinderRule rule, Optional<Package> result) {
+		Node node = matching.pop();
+		if (node.rule != rule) {
+			throw new IllegalStateException("expected " + node.rule + ", got " + rule);
+		}
+		node.result = result;
+	}
+
+	@Override
+	public void fallbackTaken(PackageFinder finder, Distribution distribution, Distribution fallback) {
+		if (!matching.isEmpty()) {
+			matching.peek().fallback = fallback;
+		}
+	}
+
+	/**
+	 * records the exception on the innermost open step, steps still open are closed without result
+	 */
+	void failed(RuntimeException error) {
+		if (matching.isEmpty()) {
+			throw error;
+		}
+		matching.peek().error = error;
+		matching.clear();
+	}
+
+	ResolutionTrace trace(Optional<Package> result) {
+		return ResolutionTrace.builder()
+			.distribution(distribution)
+			.result(result)
+			.steps(steps(steps))
+			.build();
+	}
+
+	private Distribution currentDistribution() {
+		for (Node node : matching) {
+			if (node.fallback != null) {
+				return node.fallback;
+			}
+		}
+		return distribution;
+	}
+
+	private static List<ResolutionTrace.Step> steps(List<Node> nodes) {
+		return nodes.stream()
+			.map(ResolutionTracer::step)
+			.collect(Collectors.toList());
+	}
+
+	private static ResolutionTrace.Step step(Node node) {
+		return ResolutionTrace.Step.builder()
+			.rule(node.rule)
+			.rejectedBy(Optional.ofNullable(node.rejectedBy))
+			.fallback(Optional.ofNullable(node.fallback))
+			.nested(steps(node.nested))
+			.result(node.result)
+			.error(Optional.ofNullable(node.error))
+			.build();
+	}
+
+	static ResolutionTrace.Predicate rejectedBy(DistributionMatch match, ResolutionContext context) {
+		if (match instanceof PlatformMatch) {
+			return rejectedBy((PlatformMatch) match, context.distribution().platform());
+		}
+		if (match instanceof DistributionMatch.AndThen) {
+			DistributionMatch.AndThen andThen = (DistributionMatch.AndThen) match;
+			return andThen.first().match(context)
+				? rejectedBy(andThen.second(), context)
+				: rejectedBy(andThen.first(), context);
+		}
+		if (match instanceof VersionRange) {
+			return ResolutionTrace.Predicate.VERSION_RANGE;
+		}
+		if (match instanceof ToolVersionRange) {
+			return ResolutionTrace.Predicate.TOOLS_VERSION_RANGE;
+		}
+		if (match instanceof DistributionMatch.Any) {
+			List<DistributionMatch> matcher = ((DistributionMatch.Any) match).matcher();
+			if (!matcher.isEmpty() && matcher.stream().allMatch(it -> it instanceof ToolVersionRange)) {
+				return ResolutionTrace.Predicate.TOOLS_VERSION_RANGE;
+			}
+			if (!matcher.isEmpty() && matcher.stream().allMatch(it -> it instanceof VersionRange || it instanceof ToolVersionRange)) {
+				return ResolutionTrace.Predicate.VERSION_RANGE;
+			}
+		}
+		return ResolutionTrace.Predicate.OTHER;
+	}
+
+	private static ResolutionTrace.Predicate rejectedBy(PlatformMatch match, Platform platform) {
+		if (PlatformMatch.dontMatch(match.os(), platform.operatingSystem())) {
+			return ResolutionTrace.Predicate.OS;
+		}
+		if (PlatformMatch.dontMatch(match.cpuType(), platform.architecture().cpuType())) {
+			return ResolutionTrace.Predicate.CPU_TYPE;
+		}
+		if (PlatformMatch.dontMatch(match.bitSize(), platform.architecture().bitSize())) {
+			return ResolutionTrace.Predicate.BIT_SIZE;
+		}
+		if (PlatformMatch.dontMatch(match.version(), platform.version())) {
+			return ResolutionTrace.Predicate.PLATFORM_VERSION;
+		}
+		return ResolutionTrace.Predicate.OTHER;
+	}
+
+	private static final class Node {
+		private final PackageFinderRule rule;
+		private final List<Node> nested = new ArrayList<>();
+		private ResolutionTrace.Predicate rejectedBy;
+		private Distribution fallback;
+		private Optional<Package> result = Optional.empty();
+		private RuntimeException error;
+
+		private Node(PackageFinderRule rule) {
+			this.rule = rule;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * rules which can never be used, see {@link RuleAnalyzer}
+ */
+@Value.Immutable
+public interface RuleAnalysis {
+	List<Finding> findings();
+
+	default List<Finding> findings(Kind kind) {
+		return findings().stream()
+			.filter(finding -> finding.kind() == kind)
+			.collect(Collectors.toList());
+	}
+
+	static ImmutableRuleAnalysis.Builder builder() {
+		return ImmutableRuleAnalysis.builder();
+	}
+
+	enum Kind {
+		/**
+		 * every distribution this rule matches is resolved by an earlier rule
+		 */
+		SHADOWED,
+		/**
+		 * the platform match of this rule contradicts the platform match of its parent rule
+		 */
+		UNREACHABLE
+	}
+
+	@Value.Immutable
+	interface Finding {
+		Kind kind();
+
+		/**
+		 * index of the rule in each level of the rule tree
+		 */
+		List<Integer> path();
+
+		PackageFinderRule rule();
+
+		/**
+		 * earlier rules (same level) which cover this rule
+		 */
+		List<PackageFinderRule> shadowedBy();
+
+		static ImmutableFinding.Builder builder() {
+			return ImmutableFinding.builder();
+		}
+	}
+}
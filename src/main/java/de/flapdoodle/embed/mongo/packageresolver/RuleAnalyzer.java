@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.os.Version;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * finds rules which can never be used: rules are first match, so a rule is shadowed if every distribution it matches
+ * is already matched by earlier rules with a {@link UrlTemplatePackageFinder} (which always finds a package).
+ * Only rules made of {@link PlatformMatch}, {@link VersionRange} and {@link ToolVersionRange} are analyzed, and a rule is
+ * only reported if this can be shown for its platform match as a whole, so no used rule is reported.
+ */
+public final class RuleAnalyzer {
+
+	private RuleAnalyzer() {
+		// no instance
+	}
+
+	public static RuleAnalysis analyze(PackageFinderRules rules) {
+		ImmutableRuleAnalysis.Builder builder = RuleAnalysis.builder();
+		analyze(rules, Collections.emptyList(), Optional.empty(), builder);
+		return builder.build();
+	}
+
+	/**
+	 * same rules without shadowed and unreachable rules of the first level, nested rules are not changed
+	 */
+	public static ImmutablePackageFinderRules prune(PackageFinderRules rules) {
+		List<RuleAnalysis.Finding> findings = analyze(rules).findings();
+		List<PackageFinderRule> used = new ArrayList<>();
+		for (int i = 0; i < rules.rules().size(); i++) {
+			if (!isReported(findings, i)) {
+				used.add(rules.rules().get(i));
+			}
+		}
+		return PackageFinderRules.builder()
+			.rules(used)
+			.build();
+	}
+
+	private static boolean isReported(List<RuleAnalysis.Finding> findings, int index) {
+		return findings.stream()
+			.anyMatch(finding -> finding.path().size() == 1 && finding.path().get(0) == index);
+	}
+
+	private static void analyze(PackageFinderRules rules, List<Integer> parentPath, Optional<PlatformMatch> parent, ImmutableRuleAnalysis.Builder builder) {
+		List<PackageFinderRule> list = rules.rules();
+		List<Domain> domains = new ArrayList<>(list.size());
+
+		for (int i = 0; i < list.size(); i++) {
+			PackageFinderRule rule = list.get(i);
+			List<Integer> path = new ArrayList<>(parentPath);
+			path.add(i);
+			Optional<Domain> domain = Domain.of(rule.match());
+
+			if (domain.isPresent() && parent.isPresent() && isDisjoint(parent.get(), domain.get().platform)) {
+				builder.addFindings(finding(RuleAnalysis.Kind.UNREACHABLE, path, rule, Collections.emptyList()));
+			} else if (domain.isPresent()) {
+				List<PackageFinderRule> shadowedBy = shadowedBy(domain.get(), list, domains);
+				if (!shadowedBy.isEmpty()) {
+					builder.addFindings(finding(RuleAnalysis.Kind.SHADOWED, path, rule, shadowedBy));
+				}
+			}
+			domains.add(domain.orElse(null));
+
+			PackageFinder finder = LazyPackageFinder.unwrap(rule.finder());
+			if (finder instanceof HasPlatformMatchRules) {
+				Optional<PlatformMatch> platform = domain.isPresent()
+					? Optional.of(domain.get().platform)
+					: Optional.empty();
+				analyze(((HasPlatformMatchRules) finder).rules(), path, platform, builder);
+			}
+		}
+	}
+
+	private static RuleAnalysis.Finding finding(RuleAnalysis.Kind kind, List<Integer> path, PackageFinderRule rule, List<PackageFinderRule> shadowedBy) {
+		return RuleAnalysis.Finding.builder()
+			.kind(kind)
+			.path(path)
+			.rule(rule)
+			.shadowedBy(shadowedBy)
+			.build();
+	}
+
+	/**
+	 * @return earlier rules which cover domain, empty if not covered
+	 */
+	private static List<PackageFinderRule> shadowedBy(Domain domain, List<PackageFinderRule> rules, List<Domain> earlier) {
+		List<PackageFinderRule> covering = new ArrayList<>();
+		List<Domain> coveringDomains = new ArrayList<>();
+		for (int i = 0; i < earlier.size(); i++) {
+			Domain candidate = earlier.get(i);
+			if (candidate != null
+				&& LazyPackageFinder.unwrap(rules.get(i).finder()) instanceof UrlTemplatePackageFinder
+				&& contains(candidate.platform, domain.platform)
+				&& (candidate.kind == Domain.Kind.ANY || candidate.kind == domain.kind)) {
+				covering.add(rules.get(i));
+				coveringDomains.add(candidate);
+			}
+		}
+		if (!covers(coveringDomains, domain)) {
+			return Collections.emptyList();
+		}
+		List<PackageFinderRule> ret = new ArrayList<>();
+		for (int i = 0; i < covering.size(); i++) {
+			if (overlaps(coveringDomains.get(i), domain)) {
+				ret.add(covering.get(i));
+			}
+		}
+		return ret;
+	}
+
+	private static boolean overlaps(Domain candidate, Domain domain) {
+		if (candidate.kind == Domain.Kind.ANY || domain.kind == Domain.Kind.ANY) {
+			return true;
+		}
+		return candidate.ranges.stream()
+			.anyMatch(it -> domain.ranges.stream()
+				.anyMatch(range -> it.min().isOlderOrEqual(range.max()) && it.max().isNewerOrEqual(range.min())));
+	}
+
+	private static boolean covers(List<Domain> covering, Domain domain) {
+		if (covering.stream().anyMatch(it -> it.kind == Domain.Kind.ANY)) {
+			return true;
+		}
+		switch (domain.kind) {
+			case VERSIONS:
+				return domain.ranges.stream().allMatch(range -> coversVersions(covering, range));
+			case TOOLS:
+				return domain.ranges.stream().allMatch(range -> coversToolsVersions(covering, range));
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * a version with build part only matches exact ranges, see {@link VersionRange#match(NumericVersion)}
+	 */
+	private static boolean coversVersions(List<Domain> covering, VersionRange range) {
+		if (range.isExact()) {
+			return covering.stream()
+				.flatMap(it -> it.ranges.stream())
+				.anyMatch(it -> it.match(range.min()));
+		}
+
+		NumericVersion current = range.min();
+		while (true) {
+			Optional<NumericVersion> reach = Optional.empty();
+			for (Domain domain : covering) {
+				for (VersionRange it : domain.ranges) {
+					if (!hasBuild(it) && it.min().isOlderOrEqual(current) && it.max().isNewerOrEqual(current)
+						&& (!reach.isPresent() || it.max().isNewer(reach.get()))) {
+						reach = Optional.of(it.max());
+					}
+				}
+			}
+			if (!reach.isPresent()) return false;
+			if (reach.get().isNewerOrEqual(range.max())) return true;
+			if (reach.get().patch() == Integer.MAX_VALUE) return false;
+			current = NumericVersion.of(reach.get().major(), reach.get().minor(), reach.get().patch() + 1);
+		}
+	}
+
+	/**
+	 * tools versions with build part are in between, so covering ranges must overlap
+	 */
+	private static boolean coversToolsVersions(List<Domain> covering, VersionRange range) {
+		NumericVersion current = range.min();
+		boolean first = true;
+		while (true) {
+			Optional<NumericVersion> reach = Optional.empty();
+			for (Domain domain : covering) {
+				for (VersionRange it : domain.ranges) {
+					if (it.min().isOlderOrEqual(current) && it.max().isNewerOrEqual(current)
+						&& (first || it.max().isNewer(current))
+						&& (!reach.isPresent() || it.max().isNewer(reach.get()))) {
+						reach = Optional.of(it.max());
+					}
+				}
+			}
+			if (!reach.isPresent()) return false;
+			if (reach.get().isNewerOrEqual(range.max())) return true;
+			current = reach.get();
+			first = false;
+		}
+	}
+
+	private static boolean hasBuild(VersionRange range) {
+		return range.min().build().isPresent() || range.max().build().isPresent();
+	}
+
+	/**
+	 * true if every platform matched by inner is matched by outer
+	 */
+	static boolean contains(PlatformMatch outer, PlatformMatch inner) {
+		return contains(outer.os(), inner.os())
+			&& contains(outer.cpuType(), inner.cpuType())
+			&& contains(outer.bitSize(), inner.bitSize())
+			&& (outer.version().isEmpty() || (!inner.version().isEmpty() && outer.version().containsAll(inner.version())));
+	}
+
+	private static <T> boolean contains(Optional<T> outer, Optional<T> inner) {
+		return !outer.isPresent() || outer.equals(inner);
+	}
+
+	/**
+	 * true if no platform is matched by both
+	 */
+	static boolean isDisjoint(PlatformMatch a, PlatformMatch b) {
+		return isDisjoint(a.os(), b.os())
+			|| isDisjoint(a.cpuType(), b.cpuType())
+			|| isDisjoint(a.bitSize(), b.bitSize())
+			|| (!a.version().isEmpty() && !b.version().isEmpty() && Collections.disjoint(a.version(), b.version()));
+	}
+
+	private static <T> boolean isDisjoint(Optional<T> a, Optional<T> b) {
+		return a.isPresent() && b.isPresent() && !a.equals(b);
+	}
+
+	/**
+	 * platform match and version ranges of a rule
+	 */
+	private static final class Domain {
+		enum Kind {ANY, VERSIONS, TOOLS}
+
+		private final PlatformMatch platform;
+		private final Kind kind;
+		// tools version ranges as version ranges
+		private final List<VersionRange> ranges;
+
+		private Domain(PlatformMatch platform, Kind kind, List<VersionRange> ranges) {
+			this.platform = platform;
+			this.kind = kind;
+			this.ranges = ranges;
+		}
+
+		private static Optional<Domain> of(DistributionMatch match) {
+			if (match instanceof PlatformMatch) {
+				return Optional.of(new Domain((PlatformMatch) match, Kind.ANY, Collections.emptyList()));
+			}
+			if (match instanceof DistributionMatch.All) {
+				return Optional.of(new Domain(PlatformMatch.any(), Kind.ANY, Collections.emptyList()));
+			}
+			if (match instanceof DistributionMatch.AndThen) {
+				Optional<Domain> first = of(((DistributionMatch.AndThen) match).first());
+				Optional<Domain> second = of(((DistributionMatch.AndThen) match).second());
+				if (first.isPresent() && second.isPresent()) {
+					return first.get().and(second.get());
+				}
+				return Optional.empty();
+			}
+			Optional<List<VersionRange>> versions = versionRanges(match);
+			if (versions.isPresent()) {
+				return Optional.of(new Domain(PlatformMatch.any(), Kind.VERSIONS, versions.get()));
+			}
+			Optional<List<VersionRange>> toolsVersions = toolsVersionRanges(match);
+			if (toolsVersions.isPresent()) {
+				return Optional.of(new Domain(PlatformMatch.any(), Kind.TOOLS, toolsVersions.get()));
+			}
+			return Optional.empty();
+		}
+
+		/**
+		 * only if one part restricts the platform and the other the version
+		 */
+		private Optional<Domain> and(Domain other) {
+			boolean thisIsPlatform = kind == Kind.ANY;
+			boolean otherIsPlatform = other.kind == Kind.ANY;
+			if (thisIsPlatform && other.platform.equals(PlatformMatch.any())) {
+				return Optional.of(new Domain(platform, other.kind, other.ranges));
+			}
+			if (otherIsPlatform && platform.equals(PlatformMatch.any())) {
+				return Optional.of(new Domain(other.platform, kind, ranges));
+			}
+			return Optional.empty();
+		}
+
+		private static Optional<List<VersionRange>> versionRanges(DistributionMatch match) {
+			List<VersionRange> ret = new ArrayList<>();
+			for (DistributionMatch it : parts(match)) {
+				if (!(it instanceof VersionRange)) return Optional.empty();
+				VersionRange range = (VersionRange) it;
+				// a version between bounds with build part is not reliably a release
+				if (!range.isExact() && hasBuild(range)) return Optional.empty();
+				ret.add(range);
+			}
+			return Optional.of(ret);
+		}
+
+		private static Optional<List<VersionRange>> toolsVersionRanges(DistributionMatch match) {
+			List<VersionRange> ret = new ArrayList<>();
+			for (DistributionMatch it : parts(match)) {
+				if (!(it instanceof ToolVersionRange)) return Optional.empty();
+				ToolVersionRange range = (ToolVersionRange) it;
+				ret.add(VersionRange.of(range.min(), range.max()));
+			}
+			return Optional.of(ret);
+		}
+
+		private static List<DistributionMatch> parts(DistributionMatch match) {
+			return match instanceof DistributionMatch.Any
+				? ((DistributionMatch.Any) match).matcher()
+				: Collections.singletonList(match);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.FileSet;
+import de.flapdoodle.embed.process.config.store.FileType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * rules of a generated finder only differ by the executable name, so the rule tree is built once per {@link Kind}
+ * and only the {@link UrlTemplatePackageFinder} leaves are bound to the file set of each command
+ */
+public final class RuleCatalog {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RuleCatalog.class);
+
+	private static final FileSet UNBOUND = FileSet.builder()
+		.addEntry(FileType.Executable, "unbound")
+		.build();
+
+	/**
+	 * if set to true, rules reported by {@link RuleAnalyzer} are removed before use
+	 */
+	public static final String PRUNE_SHADOWED_RULES = "de.flapdoodle.embed.mongo.packageresolver.pruneShadowedRules";
+
+	public enum Kind {
+		Server, Tools;
+
+		public static Kind of(Command command) {
+			switch (command) {
+				case MongoDump:
+				case MongoImport:
+				case MongoRestore:
+					return Tools;
+				default:
+					return Server;
+			}
+		}
+	}
+
+	private final Optional<Class<?>> resourceBase;
+	private final Function<Kind, ImmutablePackageFinderRules> catalog;
+	private final Function<Command, FileSet> fileSetOf;
+	private final ConcurrentMap<Kind, ImmutablePackageFinderRules> unboundRules = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Command, ImmutablePackageFinderRules> boundRules = new ConcurrentHashMap<>();
+
+	private RuleCatalog(Optional<Class<?>> resourceBase, Function<Kind, ImmutablePackageFinderRules> catalog, Function<Command, FileSet> fileSetOf) {
+		this.resourceBase = resourceBase;
+		this.catalog = catalog;
+		this.fileSetOf = fileSetOf;
+	}
+
+	public ImmutablePackageFinderRules rules(Command command) {
+		return boundRules.computeIfAbsent(command, it -> bind(unboundRules.computeIfAbsent(Kind.of(it), this::unboundRules), it));
+	}
+
+	private ImmutablePackageFinderRules unboundRules(Kind kind) {
+		ImmutablePackageFinderRules rules = readOrCreate(kind);
+		return Boolean.getBoolean(PRUNE_SHADOWED_RULES)
+			? RuleAnalyzer.prune(rules)
+			: rules;
+	}
+
+	private ImmutablePackageFinderRules readOrCreate(Kind kind) {
+		if (resourceBase.isPresent()) {
+			Optional<ImmutablePackageFinderRules> fromResource = readResource(resourceBase.get(), kind);
+			if (fromResource.isPresent()) {
+				return fromResource.get();
+			}
+		}
+		return catalog.apply(kind);
+	}
+
+	/**
+	 * rules as created by the generated code, bypassing the binary resource
+	 */
+	ImmutablePackageFinderRules generatedRules(Kind kind) {
+		return catalog.apply(kind);
+	}
+
+	/**
+	 * name of the binary form of the rules of this finder, next to its class
+	 */
+	static String resourceName(Class<?> type) {
+		return type.getSimpleName() + ".rules";
+	}
+
+	/**
+	 * a missing resource or a resource which can not be decoded (e.g. written for other platform versions)
+	 * falls back to the generated rules
+	 */
+	private static Optional<ImmutablePackageFinderRules> readResource(Class<?> type, Kind kind) {
+		try (InputStream resource = type.getResourceAsStream(resourceName(type))) {
+			return resource != null
+				? RuleCatalogFormat.read(new BufferedInputStream(resource), kind)
+				: Optional.empty();
+		}
+		catch (IOException | RuntimeException e) {
+			LOGGER.warn("could not read " + resourceName(type) + ", using generated rules", e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * placeholder for rule catalogs, replaced by the file set of the command
+	 */
+	public static FileSet unboundFileSet() {
+		return UNBOUND;
+	}
+
+	public static RuleCatalog of(Function<Kind, ImmutablePackageFinderRules> catalog, Function<Command, FileSet> fileSetOf) {
+		return new RuleCatalog(Optional.empty(), catalog, fileSetOf);
+	}
+
+	/**
+	 * rules are read from the binary resource of this finder type if present, else created by catalog
+	 * @see #resourceName(Class)
+	 */
+	public static RuleCatalog of(Class<?> type, Function<Kind, ImmutablePackageFinderRules> catalog, Function<Command, FileSet> fileSetOf) {
+		return new RuleCatalog(Optional.of(type), catalog, fileSetOf);
+	}
+
+	private ImmutablePackageFinderRules bind(PackageFinderRules rules, Command command) {
+		List<PackageFinderRule> bound = new ArrayList<>(rules.rules().size());
+		for (PackageFinderRule rule : rules.rules()) {
+			PackageFinder finder = rule.finder();
+			bound.add(finder instanceof UrlTemplatePackageFinder
+				? PackageFinderRule.of(rule.match(), ((UrlTemplatePackageFinder) finder).boundTo(fileSetOf, command))
+				: rule);
+		}
+		return PackageFinderRules.builder()
+			.rules(bound)
+			.build();
+	}
+}
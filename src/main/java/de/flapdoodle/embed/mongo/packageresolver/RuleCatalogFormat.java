@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.ArchiveType;
+import de.flapdoodle.os.BitSize;
+import de.flapdoodle.os.CPUType;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.Version;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * binary form of a {@link RuleCatalog}, so the rules of a generated finder can be read from a resource
+ * instead of running the generated code
+ * <pre>
+ * magic, format version
+ * string table (every os, cpu type, bit size, platform version, version, archive type and url is a reference)
+ * per kind: kind, offset and length of its rules
+ * rules of each kind: platform match, version ranges, archive type, url template, dev flag
+ * </pre>
+ * only the rules of the requested kind are read, the rules of other kinds are skipped
+ */
+final class RuleCatalogFormat {
+
+	private static final int MAGIC = 0x4d524331; // MRC1
+	private static final short FORMAT_VERSION = 1;
+
+	private static final int NONE = -1;
+	private static final byte VERSION_RANGE = 0;
+	private static final byte TOOL_VERSION_RANGE = 1;
+
+	private RuleCatalogFormat() {
+		// no instance
+	}
+
+	static void write(Map<RuleCatalog.Kind, ? extends PackageFinderRules> catalog, OutputStream out) throws IOException {
+		Strings strings = new Strings();
+		Map<RuleCatalog.Kind, byte[]> bodies = new LinkedHashMap<>();
+		for (Map.Entry<RuleCatalog.Kind, ? extends PackageFinderRules> entry : catalog.entrySet()) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			writeRules(entry.getValue(), strings, new DataOutputStream(body));
+			bodies.put(entry.getKey(), body.toByteArray());
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(FORMAT_VERSION);
+		data.writeInt(strings.values.size());
+		for (String value : strings.values) {
+			data.writeUTF(value);
+		}
+		data.writeByte(bodies.size());
+		int offset = 0;
+		for (Map.Entry<RuleCatalog.Kind, byte[]> entry : bodies.entrySet()) {
+			data.writeByte(entry.getKey().ordinal());
+			data.writeInt(offset);
+			data.writeInt(entry.getValue().length);
+			offset += entry.getValue().length;
+		}
+		for (byte[] body : bodies.values()) {
+			data.write(body);
+		}
+		data.flush();
+	}
+
+	static Optional<ImmutablePackageFinderRules> read(InputStream in, RuleCatalog.Kind kind) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) throw new IOException("not a rule catalog");
+		short formatVersion = data.readShort();
+		if (formatVersion != FORMAT_VERSION) throw new IOException("unsupported rule catalog format: " + formatVersion);
+
+		String[] strings = new String[data.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = data.readUTF();
+		}
+
+		int kinds = data.readByte();
+		int offset = NONE;
+		for (int i = 0; i < kinds; i++) {
+			int ordinal = data.readByte();
+			int kindOffset = data.readInt();
+			data.readInt();
+			if (ordinal == kind.ordinal()) {
+				offset = kindOffset;
+			}
+		}
+		if (offset == NONE) {
+			return Optional.empty();
+		}
+		// offsets are relative to the first rules
+		skip(data, offset);
+		return Optional.of(readRules(data, strings));
+	}
+
+	private static void skip(DataInputStream in, int bytes) throws IOException {
+		int left = bytes;
+		while (left > 0) {
+			int skipped = in.skipBytes(left);
+			if (skipped <= 0) throw new IOException("unexpected end of rule catalog");
+			left -= skipped;
+		}
+	}
+
+	private static void writeRules(PackageFinderRules rules, Strings strings, DataOutputStream out) throws IOException {
+		out.writeInt(rules.rules().size());
+		for (PackageFinderRule rule : rules.rules()) {
+			if (!(rule.match() instanceof DistributionMatch.AndThen)) {
+				throw new IllegalArgumentException("unsupported match: " + rule.match());
+			}
+			DistributionMatch.AndThen andThen = (DistributionMatch.AndThen) rule.match();
+			if (!(andThen.first() instanceof PlatformMatch) || !(andThen.second() instanceof DistributionMatch.Any)) {
+				throw new IllegalArgumentException("unsupported match: " + rule.match());
+			}
+			if (!(rule.finder() instanceof UrlTemplatePackageFinder)) {
+				throw new IllegalArgumentException("unsupported finder: " + rule.finder());
+			}
+
+			writePlatformMatch((PlatformMatch) andThen.first(), strings, out);
+
+			List<DistributionMatch> ranges = ((DistributionMatch.Any) andThen.second()).matcher();
+			out.writeShort(ranges.size());
+			for (DistributionMatch range : ranges) {
+				if (range instanceof VersionRange) {
+					out.writeByte(VERSION_RANGE);
+					out.writeInt(strings.ref(((VersionRange) range).min().asString()));
+					out.writeInt(strings.ref(((VersionRange) range).max().asString()));
+				} else if (range instanceof ToolVersionRange) {
+					out.writeByte(TOOL_VERSION_RANGE);
+					out.writeInt(strings.ref(((ToolVersionRange) range).min().asString()));
+					out.writeInt(strings.ref(((ToolVersionRange) range).max().asString()));
+				} else {
+					throw new IllegalArgumentException("unsupported version match: " + range);
+				}
+			}
+
+			UrlTemplatePackageFinder finder = (UrlTemplatePackageFinder) rule.finder();
+			out.writeInt(strings.ref(finder.archiveType().name()));
+			out.writeInt(strings.ref(finder.urlTemplate()));
+			out.writeBoolean(finder.isDevVersion());
+		}
+	}
+
+	private static void writePlatformMatch(PlatformMatch match, Strings strings, DataOutputStream out) throws IOException {
+		out.writeInt(match.os().isPresent() ? strings.ref(((CommonOS) match.os().get()).name()) : NONE);
+		out.writeInt(match.bitSize().isPresent() ? strings.ref(match.bitSize().get().name()) : NONE);
+		out.writeInt(match.cpuType().isPresent() ? strings.ref(match.cpuType().get().name()) : NONE);
+		out.writeShort(match.version().size());
+		for (Version version : match.version()) {
+			out.writeInt(strings.ref(PlatformVersions.keyOf(version)));
+		}
+	}
+
+	private static ImmutablePackageFinderRules readRules(DataInputStream in, String[] strings) throws IOException {
+		int count = in.readInt();
+		List<PackageFinderRule> rules = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			PlatformMatch platformMatch = readPlatformMatch(in, strings);
+
+			int rangeCount = in.readShort();
+			List<DistributionMatch> ranges = new ArrayList<>(rangeCount);
+			for (int r = 0; r < rangeCount; r++) {
+				byte type = in.readByte();
+				String min = strings[in.readInt()];
+				String max = strings[in.readInt()];
+				ranges.add(type == TOOL_VERSION_RANGE
+					? ToolVersionRange.of(min, max)
+					: VersionRange.of(min, max));
+			}
+
+			ArchiveType archiveType = ArchiveType.valueOf(strings[in.readInt()]);
+			String urlTemplate = strings[in.readInt()];
+			boolean isDevVersion = in.readBoolean();
+
+			rules.add(PackageFinderRule.builder()
+				.match(platformMatch.andThen(DistributionMatch.any(ranges)))
+				.finder(UrlTemplatePackageFinder.builder()
+					.fileSet(RuleCatalog.unboundFileSet())
+					.archiveType(archiveType)
+					.urlTemplate(urlTemplate)
+					.isDevVersion(isDevVersion)
+					.build())
+				.build());
+		}
+		return PackageFinderRules.builder()
+			.rules(rules)
+			.build();
+	}
+
+	private static PlatformMatch readPlatformMatch(DataInputStream in, String[] strings) throws IOException {
+		ImmutablePlatformMatch.Builder builder = PlatformMatch.builder();
+		int os = in.readInt();
+		if (os != NONE) builder.os(CommonOS.valueOf(strings[os]));
+		int bitSize = in.readInt();
+		if (bitSize != NONE) builder.bitSize(BitSize.valueOf(strings[bitSize]));
+		int cpuType = in.readInt();
+		if (cpuType != NONE) builder.cpuType(CPUType.valueOf(strings[cpuType]));
+		int versions = in.readShort();
+		for (int i = 0; i < versions; i++) {
+			builder.addVersion(PlatformVersions.versionOf(strings[in.readInt()]));
+		}
+		return builder.build();
+	}
+
+	static byte[] asBytes(Map<RuleCatalog.Kind, ? extends PackageFinderRules> catalog) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			write(catalog, out);
+			return out.toByteArray();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static Map<RuleCatalog.Kind, ImmutablePackageFinderRules> catalogOf(Function<RuleCatalog.Kind, ImmutablePackageFinderRules> rules) {
+		Map<RuleCatalog.Kind, ImmutablePackageFinderRules> ret = new EnumMap<>(RuleCatalog.Kind.class);
+		for (RuleCatalog.Kind kind : RuleCatalog.Kind.values()) {
+			ret.put(kind, rules.apply(kind));
+		}
+		return ret;
+	}
+
+	private static final class Strings {
+		private final List<String> values = new ArrayList<>();
+		private final Map<String, Integer> refs = new HashMap<>();
+
+		private int ref(String value) {
+			return refs.computeIfAbsent(value, it -> {
+				values.add(it);
+				return values.size() - 1;
+			});
+		}
+	}
+
+	/**
+	 * platform versions are enums of different types, so they are stored as type and name
+	 */
+	private static final class PlatformVersions {
+		private static final Map<String, Version> VERSIONS = versions();
+
+		private static String keyOf(Version version) {
+			return version.getClass().getName() + "#" + (version instanceof Enum ? ((Enum<?>) version).name() : version.toString());
+		}
+
+		private static Version versionOf(String key) {
+			Version ret = VERSIONS.get(key);
+			if (ret == null) throw new IllegalArgumentException("unknown platform version: " + key);
+			return ret;
+		}
+
+		private static Map<String, Version> versions() {
+			Map<String, Version> ret = new HashMap<>();
+			for (CommonOS os : CommonOS.values()) {
+				os.distributions().forEach(distribution -> distribution.versions()
+					.forEach(version -> ret.put(keyOf(version), version)));
+			}
+			return ret;
+		}
+	}
+}
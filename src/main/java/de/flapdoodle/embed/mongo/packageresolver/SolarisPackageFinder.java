@@ -38,8 +38,10 @@ import java.util.Optional;
 */
 public class SolarisPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(SolarisPackageFinder.class, SolarisPackageFinder::rules, SolarisPackageFinder::fileSetOf);
+
   public SolarisPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -48,8 +50,8 @@ public class SolarisPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule rule_Solaris_X86_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Solaris, BitSize.B64, CPUType.X86)
@@ -70,10 +72,8 @@ public class SolarisPackageFinder extends AbstractPackageFinder {
         .build();
 
  
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 rule_Solaris_X86_B64
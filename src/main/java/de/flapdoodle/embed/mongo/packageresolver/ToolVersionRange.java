@@ -44,18 +44,29 @@ public abstract class ToolVersionRange implements DistributionMatch {
     return match(distribution.version());
   }
 
+  @Override
+  @Value.Auxiliary
+  public boolean match(ResolutionContext context) {
+    Optional<NumericVersion> toolsVersion = context.toolsVersion();
+    return toolsVersion.isPresent() && match(toolsVersion.get());
+  }
+
   @Value.Auxiliary
   public boolean match(Version version) {
     if (version instanceof HasMongotoolsPackage) {
       Optional<? extends Version> toolsVersion = ((HasMongotoolsPackage) version).mongotoolsVersion();
       if (toolsVersion.isPresent()) {
-        NumericVersion asNumeric = NumericVersion.of(toolsVersion.get().asInDownloadPath());
-        return min().isOlderOrEqual(asNumeric) && asNumeric.isOlderOrEqual(max());
+        return match(NumericVersion.of(toolsVersion.get().asInDownloadPath()));
       }
     }
     return false;
   }
 
+  @Value.Auxiliary
+  public boolean match(NumericVersion asNumeric) {
+    return PackedVersion.isBetween(min(), asNumeric, max());
+  }
+
   public static ToolVersionRange of(NumericVersion min, NumericVersion max) {
     return ImmutableToolVersionRange.of(min, max);
   }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+/**
+ * no rule matched (or resolution failed, see {@link #getCause()}), the message (with the explanation of the rules for this platform) is rendered on first access,
+ * a serialized exception keeps only the message
+ */
+public class UnresolvablePackageException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient PackageResolution resolution;
+	private volatile String message;
+
+	public UnresolvablePackageException(PackageResolution resolution) {
+		this.resolution = resolution;
+		resolution.error().ifPresent(this::initCause);
+	}
+
+	/**
+	 * @return null if this exception was deserialized
+	 */
+	public PackageResolution resolution() {
+		return resolution;
+	}
+
+	@Override
+	public String getMessage() {
+		String ret = message;
+		if (ret == null) {
+			ret = "could not resolve package for " + resolution.distribution() + System.lineSeparator() +
+				"--------------" + System.lineSeparator() +
+				resolution.explanation();
+			message = ret;
+		}
+		return ret;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		getMessage();
+		out.defaultWriteObject();
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * url template split into literal segments and placeholder slots, so rendering does not need to search the template
+ */
+final class UrlTemplate {
+
+	static final String VERSION = "{version}";
+	static final String TOOLS_VERSION = "{tools.version}";
+
+	private static final int VERSION_SLOT = 0;
+	private static final int TOOLS_VERSION_SLOT = 1;
+
+	// literals.length == slots.length + 1
+	private final String[] literals;
+	private final int[] slots;
+	private final int literalLength;
+	private final boolean usesToolsVersion;
+
+	private UrlTemplate(String[] literals, int[] slots) {
+		this.literals = literals;
+		this.slots = slots;
+		int length = 0;
+		for (String literal : literals) {
+			length += literal.length();
+		}
+		this.literalLength = length;
+		boolean tools = false;
+		for (int slot : slots) {
+			tools |= slot == TOOLS_VERSION_SLOT;
+		}
+		this.usesToolsVersion = tools;
+	}
+
+	boolean usesToolsVersion() {
+		return usesToolsVersion;
+	}
+
+	/**
+	 * @param toolsVersion if null, the placeholder is kept as is
+	 */
+	String render(String version, String toolsVersion) {
+		String tools = toolsVersion != null ? toolsVersion : TOOLS_VERSION;
+		if (slots.length == 0) {
+			return literals[0];
+		}
+
+		int length = literalLength;
+		for (int slot : slots) {
+			length += slot == VERSION_SLOT ? version.length() : tools.length();
+		}
+
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < slots.length; i++) {
+			sb.append(literals[i]).append(slots[i] == VERSION_SLOT ? version : tools);
+		}
+		return sb.append(literals[slots.length]).toString();
+	}
+
+	static UrlTemplate compile(String template) {
+		List<String> literals = new ArrayList<>();
+		List<Integer> slots = new ArrayList<>();
+
+		int start = 0;
+		int index = template.indexOf('{');
+		while (index != -1) {
+			int slot = template.startsWith(VERSION, index)
+				? VERSION_SLOT
+				: template.startsWith(TOOLS_VERSION, index)
+					? TOOLS_VERSION_SLOT
+					: -1;
+			if (slot != -1) {
+				literals.add(template.substring(start, index));
+				slots.add(slot);
+				start = index + (slot == VERSION_SLOT ? VERSION.length() : TOOLS_VERSION.length());
+				index = template.indexOf('{', start);
+			} else {
+				index = template.indexOf('{', index + 1);
+			}
+		}
+		literals.add(template.substring(start));
+
+		return new UrlTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+	}
+}
@@ -28,25 +28,69 @@ import de.flapdoodle.embed.process.distribution.Version;
 import org.immutables.value.Value;
 
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 @Value.Immutable
 public abstract class UrlTemplatePackageFinder implements PackageFinder, HasExplanation {
 
+  // versions are user input, so we stop caching at some point
+  private static final int MAX_CACHED_PACKAGES = 256;
+
   protected abstract ArchiveType archiveType();
   protected abstract FileSet fileSet();
   abstract String urlTemplate();
 
+  /**
+   * file set of each command, set if this finder was bound to a command by a {@link RuleCatalog}
+   */
+  @Value.Auxiliary
+  abstract Optional<Function<Command, FileSet>> fileSetOf();
+
   @Value.Default
   protected boolean isDevVersion() {
     return false;
   }
 
+  @Value.Derived
+  @Value.Auxiliary
+  UrlTemplate template() {
+    return UrlTemplate.compile(urlTemplate());
+  }
+
+  /**
+   * created on first use, lazy attributes are not part of equals, hashCode and toString
+   */
+  @Value.Lazy
+  PackageCache packages() {
+    return new PackageCache();
+  }
+
   @Override
   public Optional<Package> packageFor(Distribution distribution) {
-    String path=render(urlTemplate(), distribution);
-    return Optional.of(isDevVersion()
+    UrlTemplate template = template();
+    String version = distribution.version().asInDownloadPath();
+    String toolsVersion = template.usesToolsVersion()
+      ? toolsVersion(distribution.version())
+      : null;
+
+    Object key = toolsVersion != null
+      ? new VersionAndToolsVersion(version, toolsVersion)
+      : version;
+
+    PackageCache packages = packages();
+    Optional<Package> ret = packages.get(key);
+    if (ret == null) {
+      ret = packages.putIfAbsent(key, Optional.of(packageOf(template.render(version, toolsVersion))));
+    }
+    return ret;
+  }
+
+  private Package packageOf(String path) {
+    return isDevVersion()
       ? Package.of(archiveType(), fileSet(), path, "Development Version / Release Candidate")
-      : Package.of(archiveType(), fileSet(), path));
+      : Package.of(archiveType(), fileSet(), path);
   }
 
   @Value.Auxiliary
@@ -55,23 +99,79 @@ public abstract class UrlTemplatePackageFinder implements PackageFinder, HasExpl
     return "url=" + urlTemplate() + " (" + archiveType().name() + (isDevVersion() ? "(DEV)" : "") + ")";
   }
 
-  private static String render(String urlTemplate, Distribution distribution) {
-    String version=distribution.version().asInDownloadPath();
-    String withVersion = urlTemplate.replace("{version}", version);
+  private static String toolsVersion(Version version) {
+    if (version instanceof HasMongotoolsPackage) {
+      Optional<? extends Version> toolsVersion = ((HasMongotoolsPackage) version).mongotoolsVersion();
+      if (toolsVersion.isPresent()) {
+        return toolsVersion.get().asInDownloadPath();
+      }
+    }
+    return null;
+  }
 
-    Optional<String> toolsVersion = Optional.of(distribution.version())
-        .flatMap(it -> it instanceof HasMongotoolsPackage ? Optional.of((HasMongotoolsPackage) it) : Optional.empty())
-        .flatMap(HasMongotoolsPackage::mongotoolsVersion)
-        .map(Version::asInDownloadPath);
+  UrlTemplatePackageFinder withFileSet(FileSet fileSet) {
+    return ImmutableUrlTemplatePackageFinder.copyOf(this).withFileSet(fileSet);
+  }
 
-    String withOrWithoutToolsVersion=toolsVersion.isPresent()
-        ? withVersion.replace("{tools.version}", toolsVersion.get())
-        : withVersion;
+  UrlTemplatePackageFinder boundTo(Function<Command, FileSet> fileSetOf, Command command) {
+    return ImmutableUrlTemplatePackageFinder.copyOf(this)
+      .withFileSet(fileSetOf.apply(command))
+      .withFileSetOf(fileSetOf);
+  }
 
-    return withOrWithoutToolsVersion;
+  /**
+   * same package, but with the file set of another command
+   * @return empty if this finder was not bound by a {@link RuleCatalog}
+   */
+  Optional<Package> rebind(Package resolved, Command command) {
+    return fileSetOf().map(it -> resolved.hint().isPresent()
+      ? Package.of(resolved.archiveType(), it.apply(command), resolved.url(), resolved.hint().get())
+      : Package.of(resolved.archiveType(), it.apply(command), resolved.url()));
   }
 
   public static ImmutableUrlTemplatePackageFinder.Builder builder() {
     return ImmutableUrlTemplatePackageFinder.builder();
   }
+
+  /**
+   * same template and same version, same package (wrapped once, so that a cache hit does not allocate)
+   */
+  static final class PackageCache {
+    private final ConcurrentMap<Object, Optional<Package>> packages = new ConcurrentHashMap<>();
+
+    private Optional<Package> get(Object key) {
+      return packages.get(key);
+    }
+
+    private Optional<Package> putIfAbsent(Object key, Optional<Package> value) {
+      if (packages.size() >= MAX_CACHED_PACKAGES) {
+        return value;
+      }
+      Optional<Package> existing = packages.putIfAbsent(key, value);
+      return existing != null ? existing : value;
+    }
+  }
+
+  private static final class VersionAndToolsVersion {
+    private final String version;
+    private final String toolsVersion;
+
+    private VersionAndToolsVersion(String version, String toolsVersion) {
+      this.version = version;
+      this.toolsVersion = toolsVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      VersionAndToolsVersion other = (VersionAndToolsVersion) o;
+      return version.equals(other.version) && toolsVersion.equals(other.toolsVersion);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * version.hashCode() + toolsVersion.hashCode();
+    }
+  }
 }
@@ -47,13 +47,23 @@ public abstract class VersionRange implements DistributionMatch {
     return match(distribution.version());
   }
 
+  @Override
+  @Value.Auxiliary
+  public boolean match(ResolutionContext context) {
+    return match(context.version());
+  }
+
   @Value.Auxiliary
   public boolean match(Version version) {
-    NumericVersion asNumeric = NumericVersion.of(version.asInDownloadPath());
+    return match(NumericVersion.of(version.asInDownloadPath()));
+  }
+
+  @Value.Auxiliary
+  public boolean match(NumericVersion asNumeric) {
     if (asNumeric.build().isPresent()) {
       return min().isEqual(asNumeric) && max().isEqual(asNumeric);
     }
-    return min().isOlderOrEqual(asNumeric) && asNumeric.isOlderOrEqual(max());
+    return PackedVersion.isBetween(min(), asNumeric, max());
   }
 
   public static VersionRange of(NumericVersion min, NumericVersion max) {
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link DistributionMatch.Any} of {@link VersionRange}s and {@link ToolVersionRange}s,
+ * ranges are coalesced (see {@link #coalesce(List)}), merged and sorted, so a match is a binary search
+ */
+public final class VersionRangeSet extends DistributionMatch.Any {
+
+	private final Intervals versions;
+	private final Intervals exactVersions;
+	private final Intervals toolVersions;
+
+	private VersionRangeSet(List<? extends DistributionMatch> matcher, List<VersionRange> versionRanges, List<ToolVersionRange> toolVersionRanges) {
+		super(matcher);
+		this.versions = Intervals.of(versionRanges, VersionRange::min, VersionRange::max);
+		this.exactVersions = Intervals.of(versionRanges.stream()
+			.filter(VersionRange::isExact)
+			.collect(Collectors.toList()), VersionRange::min, VersionRange::max);
+		this.toolVersions = Intervals.of(toolVersionRanges, ToolVersionRange::min, ToolVersionRange::max);
+	}
+
+	@Override
+	public boolean match(Distribution distribution) {
+		return match(ResolutionContext.of(distribution));
+	}
+
+	@Override
+	public boolean match(ResolutionContext context) {
+		if (!versions.isEmpty() && matchVersion(context.version())) {
+			return true;
+		}
+		if (!toolVersions.isEmpty()) {
+			Optional<NumericVersion> toolsVersion = context.toolsVersion();
+			return toolsVersion.isPresent() && toolVersions.contains(toolsVersion.get());
+		}
+		return false;
+	}
+
+	public boolean match(Version version) {
+		if (!versions.isEmpty() && matchVersion(NumericVersion.of(version.asInDownloadPath()))) {
+			return true;
+		}
+		if (!toolVersions.isEmpty() && version instanceof HasMongotoolsPackage) {
+			Optional<? extends Version> toolsVersion = ((HasMongotoolsPackage) version).mongotoolsVersion();
+			return toolsVersion.isPresent() && toolVersions.contains(NumericVersion.of(toolsVersion.get().asInDownloadPath()));
+		}
+		return false;
+	}
+
+	private boolean matchVersion(NumericVersion version) {
+		// versions with build part only match exact ranges, see VersionRange
+		return version.build().isPresent()
+			? exactVersions.contains(version)
+			: versions.contains(version);
+	}
+
+	/**
+	 * @return a {@link VersionRangeSet} if all matcher are {@link VersionRange}s or {@link ToolVersionRange}s
+	 */
+	static Optional<VersionRangeSet> of(List<? extends DistributionMatch> matcher) {
+		if (matcher.isEmpty()) return Optional.empty();
+
+		for (DistributionMatch match : matcher) {
+			if (!(match instanceof VersionRange) && !(match instanceof ToolVersionRange)) {
+				return Optional.empty();
+			}
+		}
+
+		List<DistributionMatch> ranges = coalesce(matcher);
+		List<VersionRange> versionRanges = new ArrayList<>();
+		List<ToolVersionRange> toolVersionRanges = new ArrayList<>();
+		for (DistributionMatch match : ranges) {
+			if (match instanceof VersionRange) {
+				versionRanges.add((VersionRange) match);
+			} else {
+				toolVersionRanges.add((ToolVersionRange) match);
+			}
+		}
+		return Optional.of(new VersionRangeSet(ranges, versionRanges, toolVersionRanges));
+	}
+
+	/**
+	 * removes duplicates and joins ranges which match the same versions as one range: overlapping ranges and
+	 * version ranges with no release in between (3.0.0-3.0.15 and 3.0.16-3.2.0), as a version with build part only
+	 * matches exact ranges. Ranges with a gap (3.4.0-3.4.7 and 3.4.9-3.4.24) stay apart, the gap may be a release without
+	 * a package. Each joined range takes the place of its first part, so the matcher is unchanged if nothing can be joined.
+	 */
+	static List<DistributionMatch> coalesce(List<? extends DistributionMatch> matcher) {
+		DistributionMatch[] ranges = matcher.toArray(new DistributionMatch[0]);
+		boolean changed = removeDuplicates(ranges);
+		changed |= join(ranges, VersionRange.class, VersionRange::min, VersionRange::max, VersionRangeSet::isOverlappingOrNext, VersionRange::of);
+		// tool version ranges match versions with build part, so only overlapping ranges are joined
+		changed |= join(ranges, ToolVersionRange.class, ToolVersionRange::min, ToolVersionRange::max, VersionRangeSet::isOverlapping, ToolVersionRange::of);
+
+		return changed
+			? Arrays.stream(ranges).filter(Objects::nonNull).collect(Collectors.toList())
+			: Collections.unmodifiableList(matcher);
+	}
+
+	private static boolean removeDuplicates(DistributionMatch[] ranges) {
+		boolean changed = false;
+		Set<DistributionMatch> seen = new HashSet<>();
+		for (int i = 0; i < ranges.length; i++) {
+			if (!seen.add(ranges[i])) {
+				ranges[i] = null;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * joins ranges of type sorted by min, ranges with build part in min or max are left as they are
+	 */
+	private static <T extends DistributionMatch> boolean join(
+		DistributionMatch[] ranges,
+		Class<T> type,
+		Function<T, NumericVersion> minOf,
+		Function<T, NumericVersion> maxOf,
+		BiPredicate<NumericVersion, NumericVersion> canJoin,
+		BiFunction<NumericVersion, NumericVersion, T> rangeOf
+	) {
+		List<Integer> sorted = new ArrayList<>();
+		for (int i = 0; i < ranges.length; i++) {
+			if (type.isInstance(ranges[i])) {
+				T range = type.cast(ranges[i]);
+				if (!minOf.apply(range).build().isPresent() && !maxOf.apply(range).build().isPresent()) {
+					sorted.add(i);
+				}
+			}
+		}
+		sorted.sort(Comparator.comparing(i -> minOf.apply(type.cast(ranges[i]))));
+
+		boolean changed = false;
+		int current = -1;
+		for (int i : sorted) {
+			T range = type.cast(ranges[i]);
+			if (current != -1) {
+				T last = type.cast(ranges[current]);
+				if (canJoin.test(maxOf.apply(last), minOf.apply(range))) {
+					NumericVersion max = maxOf.apply(range).compareTo(maxOf.apply(last)) > 0
+						? maxOf.apply(range)
+						: maxOf.apply(last);
+					ranges[current] = null;
+					ranges[i] = null;
+					current = Math.min(current, i);
+					ranges[current] = rangeOf.apply(minOf.apply(last), max);
+					changed = true;
+					continue;
+				}
+			}
+			current = i;
+		}
+		return changed;
+	}
+
+	private static boolean isOverlapping(NumericVersion lastMax, NumericVersion min) {
+		return min.compareTo(lastMax) <= 0;
+	}
+
+	private static boolean isOverlappingOrNext(NumericVersion lastMax, NumericVersion min) {
+		return isOverlapping(lastMax, min)
+			|| (lastMax.major() == min.major() && lastMax.minor() == min.minor() && lastMax.patch() + 1 == min.patch());
+	}
+
+	/**
+	 * sorted, non overlapping intervals, searched by packed versions if this is exact for all bounds
+	 */
+	private static final class Intervals {
+		private final NumericVersion[] min;
+		private final NumericVersion[] max;
+		private final long[] packedMin;
+		private final long[] packedMax;
+		private final boolean exactlyPacked;
+
+		private Intervals(NumericVersion[] min, NumericVersion[] max) {
+			this.min = min;
+			this.max = max;
+			this.packedMin = Arrays.stream(min).mapToLong(NumericVersion::packed).toArray();
+			this.packedMax = Arrays.stream(max).mapToLong(NumericVersion::packed).toArray();
+			this.exactlyPacked = Arrays.stream(packedMin).allMatch(PackedVersion::isExact)
+				&& Arrays.stream(packedMax).allMatch(PackedVersion::isExact);
+		}
+
+		boolean isEmpty() {
+			return min.length == 0;
+		}
+
+		boolean contains(NumericVersion version) {
+			long packed = version.packed();
+			if (exactlyPacked && PackedVersion.isExact(packed)) {
+				int idx = Arrays.binarySearch(packedMin, packed);
+				if (idx >= 0) return true;
+				// last interval starting before version
+				int before = -idx - 2;
+				return before >= 0 && packed <= packedMax[before];
+			}
+			int idx = Arrays.binarySearch(min, version);
+			if (idx >= 0) return true;
+			int before = -idx - 2;
+			return before >= 0 && version.compareTo(max[before]) <= 0;
+		}
+		static <T> Intervals of(List<T> ranges, Function<T, NumericVersion> minOf, Function<T, NumericVersion> maxOf) {
+			List<NumericVersion[]> sorted = new ArrayList<>();
+			ranges.forEach(range -> sorted.add(new NumericVersion[] { minOf.apply(range), maxOf.apply(range) }));
+			sorted.sort(Comparator.comparing(it -> it[0]));
+
+			List<NumericVersion> min = new ArrayList<>();
+			List<NumericVersion> max = new ArrayList<>();
+			for (NumericVersion[] interval : sorted) {
+				int last = max.size() - 1;
+				if (last >= 0 && interval[0].compareTo(max.get(last)) <= 0) {
+					if (interval[1].compareTo(max.get(last)) > 0) {
+						max.set(last, interval[1]);
+					}
+				} else {
+					min.add(interval[0]);
+					max.add(interval[1]);
+				}
+			}
+			return new Intervals(min.toArray(new NumericVersion[0]), max.toArray(new NumericVersion[0]));
+		}
+	}
+}
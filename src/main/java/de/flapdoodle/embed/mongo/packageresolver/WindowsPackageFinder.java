@@ -38,8 +38,10 @@ import java.util.Optional;
 */
 public class WindowsPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(WindowsPackageFinder.class, WindowsPackageFinder::rules, WindowsPackageFinder::fileSetOf);
+
   public WindowsPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -48,8 +50,8 @@ public class WindowsPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule devRule_Windows_X86_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Windows, BitSize.B64, CPUType.X86)
@@ -199,10 +201,8 @@ public class WindowsPackageFinder extends AbstractPackageFinder {
         .build();
 
  
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 tools_Windows_X86_B64
@@ -40,8 +40,10 @@ import java.util.Optional;
 */
 public class AmazonPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(AmazonPackageFinder.class, AmazonPackageFinder::rules, AmazonPackageFinder::fileSetOf);
+
   public AmazonPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -50,8 +52,8 @@ public class AmazonPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule devRule_AmazonLinux2023_ARM_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Linux, BitSize.B64, CPUType.ARM, AmazonVersion.AmazonLinux2023)
@@ -353,10 +355,8 @@ public class AmazonPackageFinder extends AbstractPackageFinder {
         .build();
 
 
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 tools_AmazonLinux2023_ARM_B64
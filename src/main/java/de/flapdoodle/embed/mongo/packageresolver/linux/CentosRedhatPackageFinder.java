@@ -40,8 +40,10 @@ import java.util.stream.Stream;
 */
 public class CentosRedhatPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(CentosRedhatPackageFinder.class, CentosRedhatPackageFinder::rules, CentosRedhatPackageFinder::fileSetOf);
+
   public CentosRedhatPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -60,8 +62,8 @@ public class CentosRedhatPackageFinder extends AbstractPackageFinder {
       .collect(Collectors.toList());
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule devRule_CentOS_9_ARM_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Linux, BitSize.B64, CPUType.ARM, CentosVersion.CentOS_9, RedhatVersion.Redhat_9, OracleVersion.Oracle_9, FedoraVersion.Fedora_38)
@@ -452,10 +454,8 @@ public class CentosRedhatPackageFinder extends AbstractPackageFinder {
         .build();
 
 
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 tools_CentOS_9_ARM_B64, tools_CentOS_9_ARM_B64_1
@@ -40,8 +40,10 @@ import java.util.Optional;
 */
 public class DebianPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(DebianPackageFinder.class, DebianPackageFinder::rules, DebianPackageFinder::fileSetOf);
+
   public DebianPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -50,8 +52,8 @@ public class DebianPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule devRule_DEBIAN_11_X86_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Linux, BitSize.B64, CPUType.X86, DebianVersion.DEBIAN_11, DebianVersion.DEBIAN_12, DebianVersion.DEBIAN_13)
@@ -228,10 +230,8 @@ public class DebianPackageFinder extends AbstractPackageFinder {
         .build();
 
 
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 tools_DEBIAN_11_X86_B64
@@ -24,6 +24,7 @@ import de.flapdoodle.embed.mongo.packageresolver.HasExplanation;
 import de.flapdoodle.embed.mongo.packageresolver.ImmutablePlatformMatch;
 import de.flapdoodle.embed.mongo.packageresolver.PackageFinder;
 import de.flapdoodle.embed.mongo.packageresolver.PlatformMatch;
+import de.flapdoodle.embed.mongo.packageresolver.ResolutionContext;
 import de.flapdoodle.embed.process.config.store.Package;
 import de.flapdoodle.embed.process.distribution.Distribution;
 import de.flapdoodle.os.CommonOS;
@@ -44,23 +45,38 @@ import java.util.stream.Stream;
 @Deprecated
 public class DebianUsesUbuntuPackageFinder implements PackageFinder, HasExplanation {
 
-	private final UbuntuPackageFinder ubuntuPackageFinder;
+	private final PackageFinder ubuntuPackageFinder;
 
-	public DebianUsesUbuntuPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+	public DebianUsesUbuntuPackageFinder(PackageFinder ubuntuPackageFinder) {
 		this.ubuntuPackageFinder = ubuntuPackageFinder;
 	}
 
+	/**
+	 * @deprecated use {@link #DebianUsesUbuntuPackageFinder(PackageFinder)}, which also accepts a lazy ubuntu finder
+	 */
+	@Deprecated
+	public DebianUsesUbuntuPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+		this((PackageFinder) ubuntuPackageFinder);
+	}
+
 	@Override
 	public Optional<Package> packageFor(Distribution distribution) {
+		return packageFor(ResolutionContext.of(distribution));
+	}
+
+	@Override
+	public Optional<Package> packageFor(ResolutionContext context) {
+		Distribution distribution = context.distribution();
 		if (platformMatch().match(distribution)) {
 			if (!distribution.platform().version().isPresent()) throw new RuntimeException("version not set: "+distribution);
 			Version currentVersion = distribution.platform().version().get();
 			Optional<UbuntuVersion> ubuntuVersion = matchingUbuntuVersion((DebianVersion) currentVersion);
 
 			if (ubuntuVersion.isPresent()) {
-				Distribution asUbuntudistribution = Distribution.of(distribution.version(),
+				ResolutionContext asUbuntuDistribution = context.withPlatform(
 					ImmutablePlatform.copyOf(distribution.platform()).withVersion(ubuntuVersion));
-				return ubuntuPackageFinder.packageFor(asUbuntudistribution);
+				context.listener().fallbackTaken(this, distribution, asUbuntuDistribution.distribution());
+				return ubuntuPackageFinder.packageFor(asUbuntuDistribution);
 			}
 		}
 
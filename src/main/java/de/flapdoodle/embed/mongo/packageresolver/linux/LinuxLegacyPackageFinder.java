@@ -38,8 +38,10 @@ import java.util.Optional;
 */
 public class LinuxLegacyPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(LinuxLegacyPackageFinder.class, LinuxLegacyPackageFinder::rules, LinuxLegacyPackageFinder::fileSetOf);
+
   public LinuxLegacyPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -48,8 +50,8 @@ public class LinuxLegacyPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule rule_Linux_X86_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Linux, BitSize.B64, CPUType.X86)
@@ -91,10 +93,8 @@ public class LinuxLegacyPackageFinder extends AbstractPackageFinder {
         .build();
 
  
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 rule_Linux_X86_B64
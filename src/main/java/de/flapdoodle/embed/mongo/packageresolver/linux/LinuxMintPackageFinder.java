@@ -23,6 +23,7 @@ package de.flapdoodle.embed.mongo.packageresolver.linux;
 import de.flapdoodle.embed.mongo.packageresolver.HasExplanation;
 import de.flapdoodle.embed.mongo.packageresolver.PackageFinder;
 import de.flapdoodle.embed.mongo.packageresolver.PlatformMatch;
+import de.flapdoodle.embed.mongo.packageresolver.ResolutionContext;
 import de.flapdoodle.embed.process.config.store.Package;
 import de.flapdoodle.embed.process.distribution.Distribution;
 import de.flapdoodle.os.CommonOS;
@@ -38,21 +39,36 @@ import java.util.stream.Collectors;
 
 public class LinuxMintPackageFinder implements PackageFinder, HasExplanation {
 
-	private final UbuntuPackageFinder ubuntuPackageFinder;
+	private final PackageFinder ubuntuPackageFinder;
 
-	public LinuxMintPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+	public LinuxMintPackageFinder(PackageFinder ubuntuPackageFinder) {
 		this.ubuntuPackageFinder = ubuntuPackageFinder;
 	}
 
+	/**
+	 * @deprecated use {@link #LinuxMintPackageFinder(PackageFinder)}, which also accepts a lazy ubuntu finder
+	 */
+	@Deprecated
+	public LinuxMintPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+		this((PackageFinder) ubuntuPackageFinder);
+	}
+
 	@Override
 	public Optional<Package> packageFor(Distribution distribution) {
+		return packageFor(ResolutionContext.of(distribution));
+	}
+
+	@Override
+	public Optional<Package> packageFor(ResolutionContext context) {
+		Distribution distribution = context.distribution();
 		if (PlatformMatch.withOs(CommonOS.Linux).withVersion(LinuxMintVersion.values()).match(distribution)) {
 			if (!distribution.platform().version().isPresent()) throw new RuntimeException("version not set: "+distribution);
 			Version currentVersion = distribution.platform().version().get();
 			if (currentVersion instanceof LinuxMintVersion) {
-				Distribution asUbuntudistribution = Distribution.of(distribution.version(),
+				ResolutionContext asUbuntuDistribution = context.withPlatform(
 					ImmutablePlatform.copyOf(distribution.platform()).withVersion(((LinuxMintVersion) currentVersion).matchingUbuntuVersion()));
-				return ubuntuPackageFinder.packageFor(asUbuntudistribution);
+				context.listener().fallbackTaken(this, distribution, asUbuntuDistribution.distribution());
+				return ubuntuPackageFinder.packageFor(asUbuntuDistribution);
 			} else {
 				throw new IllegalArgumentException("Version is not a "+LinuxMintVersion.class+": "+currentVersion);
 			}
@@ -51,7 +51,8 @@ public class LinuxPackageFinder extends AbstractPackageFinder {
 	private static ImmutablePackageFinderRules rules(Command command) {
 		ImmutableFileSet fileSet = FileSet.builder().addEntry(FileType.Executable, command.commandName()).build();
 
-    UbuntuPackageFinder ubuntuPackageFinder = new UbuntuPackageFinder(command);
+		// each distribution family is created on first use
+		LazyPackageFinder<UbuntuPackageFinder> ubuntuPackageFinder = LazyPackageFinder.of(() -> new UbuntuPackageFinder(command));
 
     final ImmutablePackageFinderRule ubuntuRule = PackageFinderRule.builder()
 			.match(PlatformMatch.withOs(CommonOS.Linux)
@@ -78,26 +79,24 @@ public class LinuxPackageFinder extends AbstractPackageFinder {
 
 		final ImmutablePackageFinderRule debianRule = PackageFinderRule.builder()
 			.match(PlatformMatch.withOs(CommonOS.Linux).withVersion(DebianVersion.values()))
-			.finder(new DebianPackageFinder(command))
+			.finder(LazyPackageFinder.of(() -> new DebianPackageFinder(command)))
 			.build();
 
-		CentosRedhatPackageFinder centosRedhatPackageFinder = new CentosRedhatPackageFinder(command);
-
 		ImmutablePackageFinderRule centosRedhatOracleRule = PackageFinderRule.builder()
 			.match(PlatformMatch.withOs(CommonOS.Linux)
 				.withVersion(CentosRedhatPackageFinder.knownVersions()))
-			.finder(centosRedhatPackageFinder)
+			.finder(LazyPackageFinder.of(() -> new CentosRedhatPackageFinder(command)))
 			.build();
 
 		ImmutablePackageFinderRule amazonRule = PackageFinderRule.builder()
 			.match(PlatformMatch.withOs(CommonOS.Linux)
 				.withVersion(AmazonVersion.values()))
-			.finder(new AmazonPackageFinder(command))
+			.finder(LazyPackageFinder.of(() -> new AmazonPackageFinder(command)))
 			.build();
 
 		ImmutablePackageFinderRule linuxLegacyRule = PackageFinderRule.builder()
 			.match(PlatformMatch.withOs(CommonOS.Linux))
-			.finder(new LinuxLegacyPackageFinder(command))
+			.finder(LazyPackageFinder.of(() -> new LinuxLegacyPackageFinder(command)))
 			.build();
 
 		PackageFinderRule failIfNothingMatches = PackageFinderRule.builder()
@@ -120,27 +119,42 @@ public class LinuxPackageFinder extends AbstractPackageFinder {
 	}
 
 	static class FallbackToUbuntuOrFailPackageFinder implements PackageFinder, HasExplanation {
-		private final UbuntuPackageFinder ubuntuPackageFinder;
+		private final PackageFinder ubuntuPackageFinder;
 		private final UbuntuVersion fallbackUbuntuVersion = UbuntuVersion.Ubuntu_20_04;
 
-		public FallbackToUbuntuOrFailPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+		public FallbackToUbuntuOrFailPackageFinder(PackageFinder ubuntuPackageFinder) {
 			this.ubuntuPackageFinder = ubuntuPackageFinder;
 		}
 
+		/**
+		 * @deprecated use {@link #FallbackToUbuntuOrFailPackageFinder(PackageFinder)}, which also accepts a lazy ubuntu finder
+		 */
+		@Deprecated
+		public FallbackToUbuntuOrFailPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+			this((PackageFinder) ubuntuPackageFinder);
+		}
+
 		@Override
 		public Optional<Package> packageFor(Distribution distribution) {
+			return packageFor(ResolutionContext.of(distribution));
+		}
+
+		@Override
+		public Optional<Package> packageFor(ResolutionContext context) {
+			Distribution distribution = context.distribution();
 			if (distribution.platform().distribution().isPresent()) {
 				// only fallback if no linux dist is detected
 				return Optional.empty();
 			}
 
-			Distribution ubuntuLTSFallback = Distribution.of(distribution.version(),
-				ImmutablePlatform.copyOf(distribution.platform())
-					.withVersion(fallbackUbuntuVersion));
+			ResolutionContext ubuntuLTSFallbackContext = context.withPlatform(ImmutablePlatform.copyOf(distribution.platform())
+				.withVersion(fallbackUbuntuVersion));
+			Distribution ubuntuLTSFallback = ubuntuLTSFallbackContext.distribution();
 
 			LOGGER.warn("because there is no package for " + distribution + " we fall back to " + ubuntuLTSFallback);
+			context.listener().fallbackTaken(this, distribution, ubuntuLTSFallback);
 
-			Optional<Package> resolvedPackage = ubuntuPackageFinder.packageFor(ubuntuLTSFallback);
+			Optional<Package> resolvedPackage = ubuntuPackageFinder.packageFor(ubuntuLTSFallbackContext);
 			if (!resolvedPackage.isPresent()) {
 				throw new IllegalArgumentException("linux distribution not supported: " + distribution + "(with fallback to " + ubuntuLTSFallback + ")");
 			}
@@ -23,6 +23,7 @@ package de.flapdoodle.embed.mongo.packageresolver.linux;
 import de.flapdoodle.embed.mongo.packageresolver.HasExplanation;
 import de.flapdoodle.embed.mongo.packageresolver.PackageFinder;
 import de.flapdoodle.embed.mongo.packageresolver.PlatformMatch;
+import de.flapdoodle.embed.mongo.packageresolver.ResolutionContext;
 import de.flapdoodle.embed.process.config.store.Package;
 import de.flapdoodle.embed.process.distribution.Distribution;
 import de.flapdoodle.os.CommonOS;
@@ -39,21 +40,36 @@ import java.util.stream.Collectors;
 
 public class PopOSPackageFinder implements PackageFinder, HasExplanation {
 
-	private final UbuntuPackageFinder ubuntuPackageFinder;
+	private final PackageFinder ubuntuPackageFinder;
 
-	public PopOSPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+	public PopOSPackageFinder(PackageFinder ubuntuPackageFinder) {
 		this.ubuntuPackageFinder = ubuntuPackageFinder;
 	}
 
+	/**
+	 * @deprecated use {@link #PopOSPackageFinder(PackageFinder)}, which also accepts a lazy ubuntu finder
+	 */
+	@Deprecated
+	public PopOSPackageFinder(UbuntuPackageFinder ubuntuPackageFinder) {
+		this((PackageFinder) ubuntuPackageFinder);
+	}
+
 	@Override
 	public Optional<Package> packageFor(Distribution distribution) {
+		return packageFor(ResolutionContext.of(distribution));
+	}
+
+	@Override
+	public Optional<Package> packageFor(ResolutionContext context) {
+		Distribution distribution = context.distribution();
 		if (PlatformMatch.withOs(CommonOS.Linux).withVersion(PopOSVersion.values()).match(distribution)) {
 			if (!distribution.platform().version().isPresent()) throw new RuntimeException("version not set: "+distribution);
 			Version currentVersion = distribution.platform().version().get();
 			if (currentVersion instanceof PopOSVersion) {
-				Distribution asUbuntudistribution = Distribution.of(distribution.version(),
+				ResolutionContext asUbuntuDistribution = context.withPlatform(
 					ImmutablePlatform.copyOf(distribution.platform()).withVersion(((PopOSVersion) currentVersion).matchingUbuntuVersion()));
-				return ubuntuPackageFinder.packageFor(asUbuntudistribution);
+				context.listener().fallbackTaken(this, distribution, asUbuntuDistribution.distribution());
+				return ubuntuPackageFinder.packageFor(asUbuntuDistribution);
 			} else {
 				throw new IllegalArgumentException("Version is not a "+PopOSVersion.class+": "+currentVersion);
 			}
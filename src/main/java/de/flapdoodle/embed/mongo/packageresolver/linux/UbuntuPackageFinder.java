@@ -40,8 +40,10 @@ import java.util.Optional;
 */
 public class UbuntuPackageFinder extends AbstractPackageFinder {
 
+  private static final RuleCatalog CATALOG = RuleCatalog.of(UbuntuPackageFinder.class, UbuntuPackageFinder::rules, UbuntuPackageFinder::fileSetOf);
+
   public UbuntuPackageFinder(final Command command) {
-    super(command, rules(command));
+    super(command, CATALOG.rules(command));
   }
 
   private static FileSet fileSetOf(Command command) {
@@ -50,8 +52,8 @@ public class UbuntuPackageFinder extends AbstractPackageFinder {
             .build();
   }
 
-  private static ImmutablePackageFinderRules rules(final Command command) {
-    FileSet fileSet = fileSetOf(command);
+  private static ImmutablePackageFinderRules rules(final RuleCatalog.Kind kind) {
+    FileSet fileSet = RuleCatalog.unboundFileSet();
 
     PackageFinderRule devRule_Ubuntu_22_04_ARM_B64 = PackageFinderRule.builder()
         .match(match(CommonOS.Linux, BitSize.B64, CPUType.ARM, UbuntuVersion.Ubuntu_22_04, UbuntuVersion.Ubuntu_22_10, UbuntuVersion.Ubuntu_23_04, UbuntuVersion.Ubuntu_23_10)
@@ -509,10 +511,8 @@ public class UbuntuPackageFinder extends AbstractPackageFinder {
         .build();
 
 
-    switch (command) {
-      case MongoDump:
-      case MongoImport:
-      case MongoRestore:
+    switch (kind) {
+      case Tools:
         return PackageFinderRules.empty()
             .withAdditionalRules(
                 tools_Ubuntu_22_04_ARM_B64
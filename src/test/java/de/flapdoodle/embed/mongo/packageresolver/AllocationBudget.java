@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+
+/**
+ * bytes allocated per call of an entry point, measured with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)},
+ * the budget can be changed with -Dallocation.budget.&lt;name&gt;=bytes
+ * <p>
+ * budgets are what the interpreter allocates (java -Xint), the jit can only remove allocations, so they hold without a warm jit,
+ * the warmup calls only fill the caches of the entry point
+ */
+final class AllocationBudget {
+
+	private static final int WARMUP_CALLS = 100;
+	private static final int MEASURED_CALLS = 10_000;
+
+	private static volatile Object sink;
+
+	private final String name;
+	private final long bytesPerCall;
+
+	private AllocationBudget(String name, long bytesPerCall) {
+		this.name = name;
+		this.bytesPerCall = bytesPerCall;
+	}
+
+	String name() {
+		return name;
+	}
+
+	long bytesPerCall() {
+		return Long.getLong("allocation.budget." + name, bytesPerCall);
+	}
+
+	void assertWithin(Supplier<?> call) {
+		long allocated = allocatedBytesPerCall(call);
+		Assertions.assertThat(allocated)
+			.describedAs("%s allocates %d bytes per call, budget is %d bytes", name, allocated, bytesPerCall())
+			.isLessThanOrEqualTo(bytesPerCall());
+	}
+
+	static AllocationBudget of(String name, long bytesPerCall) {
+		return new AllocationBudget(name, bytesPerCall);
+	}
+
+	static long allocatedBytesPerCall(Supplier<?> call) {
+		com.sun.management.ThreadMXBean threads = allocationMeasuringThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < WARMUP_CALLS; i++) {
+			sink = call.get();
+		}
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_CALLS; i++) {
+			sink = call.get();
+		}
+		long after = threads.getThreadAllocatedBytes(threadId);
+		return (after - before) / MEASURED_CALLS;
+	}
+
+	private static com.sun.management.ThreadMXBean allocationMeasuringThreadMXBean() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threads instanceof com.sun.management.ThreadMXBean, "thread allocation measurement not available");
+		com.sun.management.ThreadMXBean ret = (com.sun.management.ThreadMXBean) threads;
+		Assumptions.assumeTrue(ret.isThreadAllocatedMemorySupported(), "thread allocation measurement not supported");
+		if (!ret.isThreadAllocatedMemoryEnabled()) {
+			ret.setThreadAllocatedMemoryEnabled(true);
+		}
+		Assumptions.assumeTrue(ret.isThreadAllocatedMemoryEnabled(), "thread allocation measurement not enabled");
+		return ret;
+	}
+}
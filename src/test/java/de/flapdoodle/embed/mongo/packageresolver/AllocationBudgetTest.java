@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.FileSet;
+import de.flapdoodle.embed.process.config.store.FileType;
+import de.flapdoodle.embed.process.distribution.ArchiveType;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import org.junit.jupiter.api.Test;
+
+/**
+ * steady state allocations of the resolution hot path, allocation free paths must stay allocation free
+ */
+class AllocationBudgetTest {
+
+	// os, cpu type and bit size of each evaluated platform match are wrapped in an optional
+	private static final AllocationBudget PACKAGE_FINDER_RULES = AllocationBudget.of("PackageFinderRules.packageFor", 96);
+	// the key of the platform index (and the array to hash it)
+	private static final AllocationBudget COMPILED_PACKAGE_FINDER_RULES = AllocationBudget.of("CompiledPackageFinderRules.packageFor", 64);
+	// parsing the version is the only other allocation
+	private static final AllocationBudget PACKAGE_FINDER_RULES_UNPARSED = AllocationBudget.of("PackageFinderRules.packageFor.unparsed", 512);
+	private static final AllocationBudget VERSION_RANGE = AllocationBudget.of("VersionRange.match", 0);
+	private static final AllocationBudget VERSION_RANGE_UNPARSED = AllocationBudget.of("VersionRange.match.unparsed", 512);
+	private static final AllocationBudget URL_TEMPLATE_PACKAGE_FINDER = AllocationBudget.of("UrlTemplatePackageFinder.packageFor", 0);
+	private static final AllocationBudget FEATURES_OF = AllocationBudget.of("DefaultFeatureSetResolver.featuresOf", 0);
+
+	private final Distribution distribution = DistributionSamples.Representative.WINDOWS.distribution();
+	private final ResolutionContext context = ResolutionContext.of(distribution);
+
+	@Test
+	void packageFinderRules() {
+		PackageFinderRules rules = new WindowsPackageFinder(Command.MongoD).rules();
+
+		PACKAGE_FINDER_RULES.assertWithin(() -> rules.packageFor(context));
+		PACKAGE_FINDER_RULES_UNPARSED.assertWithin(() -> rules.packageFor(distribution));
+	}
+
+	@Test
+	void compiledPackageFinderRules() {
+		CompiledPackageFinderRules rules = new WindowsPackageFinder(Command.MongoD).rules().compile();
+
+		COMPILED_PACKAGE_FINDER_RULES.assertWithin(() -> rules.packageFor(context));
+	}
+
+	@Test
+	void versionRange() {
+		VersionRange range = VersionRange.of("6.0.0", "6.0.99");
+		NumericVersion version = context.version();
+
+		VERSION_RANGE.assertWithin(() -> range.match(version));
+		VERSION_RANGE.assertWithin(() -> range.match(context));
+		VERSION_RANGE_UNPARSED.assertWithin(() -> range.match(distribution));
+	}
+
+	@Test
+	void urlTemplatePackageFinder() {
+		UrlTemplatePackageFinder finder = UrlTemplatePackageFinder.builder()
+			.fileSet(FileSet.builder().addEntry(FileType.Executable, "mongod").build())
+			.archiveType(ArchiveType.ZIP)
+			.urlTemplate("/windows/mongodb-windows-x86_64-{version}.zip")
+			.build();
+
+		URL_TEMPLATE_PACKAGE_FINDER.assertWithin(() -> finder.packageFor(context));
+		URL_TEMPLATE_PACKAGE_FINDER.assertWithin(() -> finder.packageFor(distribution));
+	}
+
+	@Test
+	void featuresOf() {
+		FEATURES_OF.assertWithin(() -> DefaultFeatureSetResolver.INSTANCE.featuresOf(distribution.version()));
+	}
+}
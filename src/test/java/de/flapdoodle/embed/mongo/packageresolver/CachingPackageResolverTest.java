@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.PackageResolver;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.linux.UbuntuVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingPackageResolverTest {
+
+	private static final ImmutablePlatform UBUNTU = ImmutablePlatform.builder()
+		.operatingSystem(CommonOS.Linux)
+		.architecture(CommonArchitecture.X86_64)
+		.version(UbuntuVersion.Ubuntu_22_04)
+		.build();
+
+	@Test
+	public void secondResolutionMustBeCached() {
+		CountingResolver delegate = new CountingResolver(new PlatformPackageResolver(Command.MongoD));
+		CachingPackageResolver resolver = CachingPackageResolver.of(delegate);
+
+		Package first = resolver.packageFor(Distribution.of(Version.of("6.0.11"), UBUNTU));
+		Package second = resolver.packageFor(Distribution.of(Version.of("6.0.11"), ImmutablePlatform.copyOf(UBUNTU)));
+
+		assertThat(second).isSameAs(first);
+		assertThat(delegate.calls.get()).isEqualTo(1);
+		assertThat(resolver.stats()).isEqualTo(CacheStats.of(1, 1, 0, 1));
+	}
+
+	@Test
+	public void differentPlatformOrVersionMustNotBeCached() {
+		CountingResolver delegate = new CountingResolver(new PlatformPackageResolver(Command.MongoDump));
+		CachingPackageResolver resolver = CachingPackageResolver.of(delegate);
+
+		Package ubuntu = resolver.packageFor(Distribution.of(DistributionSamples.ToolsVersion.of(Version.of("100.7.5")), UBUNTU));
+		Package otherToolsVersion = resolver.packageFor(Distribution.of(DistributionSamples.ToolsVersion.of(Version.of("100.9.0")), UBUNTU));
+		Package otherPlatform = resolver.packageFor(Distribution.of(DistributionSamples.ToolsVersion.of(Version.of("100.7.5")),
+			UBUNTU.withArchitecture(CommonArchitecture.ARM_64)));
+
+		assertThat(ubuntu.url()).contains("100.7.5").contains("x86_64");
+		assertThat(otherToolsVersion.url()).contains("100.9.0");
+		assertThat(otherPlatform.url()).contains("arm64");
+		assertThat(delegate.calls.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void cacheMustNotGrowBeyondMaxSize() {
+		CachingPackageResolver resolver = CachingPackageResolver.of(new PlatformPackageResolver(Command.MongoD), 2);
+
+		resolver.packageFor(Distribution.of(Version.of("6.0.9"), UBUNTU));
+		resolver.packageFor(Distribution.of(Version.of("6.0.10"), UBUNTU));
+		resolver.packageFor(Distribution.of(Version.of("6.0.11"), UBUNTU));
+
+		CacheStats stats = resolver.stats();
+		assertThat(stats.size()).isEqualTo(2);
+		assertThat(stats.evictions()).isEqualTo(1);
+		assertThat(stats.misses()).isEqualTo(3);
+	}
+
+	@Test
+	public void evictedEntriesMustBeResolvedAgain() {
+		CountingResolver delegate = new CountingResolver(new PlatformPackageResolver(Command.MongoD));
+		CachingPackageResolver resolver = CachingPackageResolver.of(delegate, 1);
+
+		Package first = resolver.packageFor(Distribution.of(Version.of("6.0.9"), UBUNTU));
+		resolver.packageFor(Distribution.of(Version.of("6.0.10"), UBUNTU));
+		Package again = resolver.packageFor(Distribution.of(Version.of("6.0.9"), UBUNTU));
+		resolver.packageFor(Distribution.of(Version.of("6.0.10"), UBUNTU));
+
+		// which entry is evicted is not defined, one of both is resolved again
+		CacheStats stats = resolver.stats();
+		assertThat(again).isEqualTo(first);
+		assertThat(stats.hits() + stats.misses()).isEqualTo(4);
+		assertThat(stats.misses()).isEqualTo(delegate.calls.get()).isGreaterThanOrEqualTo(3);
+		assertThat(stats.evictions()).isEqualTo(stats.misses() - 1);
+		assertThat(stats.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void concurrentMissesMustKeepCacheSizeBounded() throws InterruptedException {
+		Package any = new PlatformPackageResolver(Command.MongoD).packageFor(Distribution.of(Version.of("6.0.11"), UBUNTU));
+		int maxSize = 16;
+		int threads = 8;
+		int distributionsPerThread = 500;
+		CachingPackageResolver resolver = CachingPackageResolver.of(distribution -> any, maxSize);
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int major = t + 1;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < distributionsPerThread; i++) {
+						Distribution distribution = Distribution.of(Version.of(major + ".0." + i), UBUNTU);
+						assertThat(resolver.packageFor(distribution)).isSameAs(any);
+						// an entry is inserted before entries are evicted
+						assertThat(resolver.stats().size()).isLessThanOrEqualTo(maxSize + threads);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				assertThat(future).succeedsWithin(Duration.ofMinutes(1));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		int inserted = threads * distributionsPerThread;
+		CacheStats stats = resolver.stats();
+		assertThat(stats.misses()).isEqualTo(inserted);
+		assertThat(stats.size()).isLessThanOrEqualTo(maxSize);
+		assertThat(stats.evictions() + stats.size()).isEqualTo(inserted);
+	}
+
+	@Test
+	public void unresolvableDistributionsMustBeCached() {
+		CountingResolver delegate = new CountingResolver(new PlatformPackageResolver(Command.MongoD));
+		CachingPackageResolver resolver = CachingPackageResolver.of(delegate);
+		Distribution unknown = Distribution.of(Version.of("1.0.0"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Windows)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+
+		assertThatThrownBy(() -> resolver.packageFor(unknown))
+			.isInstanceOf(UnresolvablePackageException.class)
+			.hasMessageStartingWith("could not resolve package for " + unknown);
+		assertThat(resolver.resolve(unknown).isResolved()).isFalse();
+		assertThat(delegate.calls.get()).isEqualTo(1);
+		assertThat(resolver.stats()).isEqualTo(CacheStats.of(1, 1, 0, 1));
+	}
+
+	@Test
+	public void otherFailuresMustNotBeCached() {
+		AtomicInteger calls = new AtomicInteger();
+		CachingPackageResolver resolver = CachingPackageResolver.of(distribution -> {
+			calls.incrementAndGet();
+			throw new IllegalArgumentException("fail");
+		});
+		Distribution unknown = Distribution.of(Version.of("1.0.0"), UBUNTU);
+
+		assertThatThrownBy(() -> resolver.packageFor(unknown)).hasMessage("fail");
+		assertThatThrownBy(() -> resolver.packageFor(unknown)).hasMessage("fail");
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(resolver.stats().size()).isEqualTo(0);
+	}
+
+	static class CountingResolver implements PackageResolver {
+		private final PackageResolver delegate;
+		private final AtomicInteger calls = new AtomicInteger();
+
+		CountingResolver(PackageResolver delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Package packageFor(Distribution distribution) {
+			calls.incrementAndGet();
+			return delegate.packageFor(distribution);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.linux.UbuntuVersion;
+import de.flapdoodle.embed.process.distribution.Version;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledPackageFinderRulesTest {
+
+	@Test
+	public void compiledResolverMustResolveSamePackage() {
+		Distribution distribution = Distribution.of(Version.of("6.0.11"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.ARM_64)
+			.version(UbuntuVersion.Ubuntu_22_04)
+			.build());
+
+		assertThat(PlatformPackageResolver.compiled(Command.MongoD).packageFor(distribution))
+			.isEqualTo(new PlatformPackageResolver(Command.MongoD).packageFor(distribution));
+	}
+
+	@Test
+	public void firstMatchMustWin() {
+		PackageFinder first = distribution -> Optional.empty();
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.withAdditionalRules(
+				PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux).andThen(VersionRange.of("1.0.0", "2.0.0")), first),
+				PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Windows), PackageFinder.failWithMessage(it -> "windows")),
+				PackageFinderRule.of(VersionRange.of("1.0.0", "3.0.0"), PackageFinder.failWithMessage(it -> "any os")),
+				PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), PackageFinder.failWithMessage(it -> "linux"))
+			);
+
+		Distribution linux = Distribution.of(Version.of("1.2.3"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+		Distribution linuxNotInRange = Distribution.of(Version.of("3.2.3"), linux.platform());
+
+		assertThat(DistributionSamples.outcomeOf(() -> rules.compile().packageFor(linux).get()).toString())
+			.isEqualTo("java.lang.IllegalArgumentException: any os");
+		assertThat(DistributionSamples.outcomeOf(() -> rules.compile().packageFor(linuxNotInRange).get()).toString())
+			.isEqualTo("java.lang.IllegalArgumentException: linux");
+	}
+}
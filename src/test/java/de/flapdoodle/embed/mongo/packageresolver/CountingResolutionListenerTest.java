@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.linux.LinuxDistribution;
+import de.flapdoodle.os.linux.LinuxMintVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class CountingResolutionListenerTest {
+
+	private final Distribution linuxMint = Distribution.of(Version.of("5.0.2"), ImmutablePlatform.builder()
+		.operatingSystem(CommonOS.Linux)
+		.architecture(CommonArchitecture.X86_64)
+		.distribution(LinuxDistribution.LinuxMint)
+		.version(LinuxMintVersion.LINUX_MINT_19_0)
+		.build());
+
+	@Test
+	void resolutionMustBeCounted() {
+		CountingResolutionListener listener = new CountingResolutionListener();
+		PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD).withListener(listener);
+
+		assertThat(resolver.resolve(DistributionSamples.Representative.UBUNTU_22_04_ARM.distribution()).isResolved()).isTrue();
+		assertThat(resolver.resolve(DistributionSamples.Representative.UNRESOLVABLE.distribution()).isResolved()).isFalse();
+
+		ResolutionStats stats = listener.stats();
+		assertThat(stats.resolutions()).isEqualTo(2);
+		assertThat(stats.unresolved()).isEqualTo(1);
+		assertThat(stats.nanos()).isPositive();
+		assertThat(stats.fallbacks()).isZero();
+		// linux rule, ubuntu rule of linux finder and the version rule of the ubuntu finder
+		assertThat(stats.rulesMatched()).isEqualTo(3);
+		assertThat(stats.rulesEvaluated()).isGreaterThan(stats.rulesMatched());
+		assertThat(stats.matchesByRule().values()).containsOnly(1L);
+	}
+
+	@Test
+	void linuxMintMustBeCountedAsFallback() {
+		CountingResolutionListener listener = new CountingResolutionListener();
+		PlatformPackageResolver resolver = PlatformPackageResolver.compiled(Command.MongoD).withListener(listener);
+
+		assertThat(resolver.resolve(linuxMint).isResolved()).isTrue();
+
+		assertThat(listener.stats().fallbacks()).isEqualTo(1);
+	}
+
+	@Test
+	void compiledRulesMustReportSameMatchingRules() {
+		CountingResolutionListener listener = new CountingResolutionListener();
+		CountingResolutionListener compiledListener = new CountingResolutionListener();
+		PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD).withListener(listener);
+		PlatformPackageResolver compiled = PlatformPackageResolver.compiled(Command.MongoD).withListener(compiledListener);
+
+		for (DistributionSamples.Representative sample : DistributionSamples.Representative.values()) {
+			resolver.resolve(sample.distribution());
+			compiled.resolve(sample.distribution());
+		}
+
+		// rules with lazy finders are only equal within the same resolver
+		assertThat(compiledListener.stats().rulesMatched()).isEqualTo(listener.stats().rulesMatched());
+		assertThat(compiledListener.stats().matchesByRule().values())
+			.containsExactlyInAnyOrderElementsOf(listener.stats().matchesByRule().values());
+		assertThat(compiledListener.stats().rulesEvaluated()).isLessThanOrEqualTo(listener.stats().rulesEvaluated());
+	}
+
+	@Test
+	void equalRulesMustBeCountedTogether() {
+		CountingResolutionListener listener = new CountingResolutionListener();
+		PackageFinderRule rule = PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), PackageFinder.failWithMessage(distribution -> "fail"));
+		PackageFinderRule equalRule = PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), rule.finder());
+
+		listener.ruleMatched(rule);
+		listener.ruleMatched(rule);
+		listener.ruleMatched(equalRule);
+
+		assertThat(equalRule).isNotSameAs(rule).isEqualTo(rule);
+		assertThat(listener.stats().matchesByRule()).containsExactly(entry(rule, 3L));
+	}
+
+	@Test
+	void resetMustClearAllCounters() {
+		CountingResolutionListener listener = new CountingResolutionListener();
+		new PlatformPackageResolver(Command.MongoD).withListener(listener).resolve(linuxMint);
+
+		listener.reset();
+
+		assertThat(listener.stats()).isEqualTo(ResolutionStats.builder()
+			.resolutions(0).unresolved(0).nanos(0).rulesEvaluated(0).rulesMatched(0).fallbacks(0)
+			.build());
+	}
+
+	@Test
+	void withoutListenerNothingIsReported() {
+		assertThat(ResolutionContext.of(linuxMint).isListening()).isFalse();
+		assertThat(ResolutionContext.of(linuxMint, new CountingResolutionListener()).isListening()).isTrue();
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.Architecture;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.Platform;
+import de.flapdoodle.os.linux.AmazonVersion;
+import de.flapdoodle.os.linux.LinuxDistribution;
+import de.flapdoodle.os.linux.RedhatVersion;
+import de.flapdoodle.os.linux.UbuntuVersion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * every os, architecture and os version combined with a selection of db and tools versions
+ */
+public class DistributionSamples {
+
+	static final List<String> VERSIONS = Arrays.asList(
+		"2.6.0", "3.4.7", "3.4.8", "4.0.28", "4.4.24-rc0", "5.0.2", "6.0.11", "7.0.0-rc10", "7.0.2", "7.1.0",
+		"100.0.0-alpha1"
+	);
+
+	static final List<String> TOOLS_VERSIONS = Arrays.asList(
+		"100.5.1", "100.7.5", "100.9.0", "99.0.0"
+	);
+
+	public static List<Platform> platforms() {
+		List<Platform> ret = new ArrayList<>();
+		for (CommonOS os : CommonOS.values()) {
+			for (Architecture architecture : os.architectures()) {
+				ImmutablePlatform platform = ImmutablePlatform.builder()
+					.operatingSystem(os)
+					.architecture(architecture)
+					.build();
+				ret.add(platform);
+				os.distributions().forEach(distribution -> {
+					ret.add(platform.withDistribution(distribution));
+					distribution.versions().forEach(version -> ret.add(platform.withDistribution(distribution).withVersion(version)));
+				});
+			}
+		}
+		return ret;
+	}
+
+	public static List<Distribution> distributions() {
+		List<Distribution> ret = new ArrayList<>();
+		for (Platform platform : platforms()) {
+			VERSIONS.forEach(version -> ret.add(Distribution.of(Version.of(version), platform)));
+			TOOLS_VERSIONS.forEach(version -> ret.add(Distribution.of(ToolsVersion.of(Version.of(version)), platform)));
+		}
+		return ret;
+	}
+
+	/**
+	 * one distribution for each kind of resolution, used by benchmarks
+	 */
+	public enum Representative {
+		UBUNTU_22_04_ARM("7.0.2", linux(CommonArchitecture.ARM_64, LinuxDistribution.Ubuntu, UbuntuVersion.Ubuntu_22_04)),
+		RHEL_8("6.0.11", linux(CommonArchitecture.X86_64, LinuxDistribution.Redhat, RedhatVersion.Redhat_8)),
+		AMAZON_2023("7.0.2", linux(CommonArchitecture.X86_64, LinuxDistribution.Amazon, AmazonVersion.AmazonLinux2023)),
+		WINDOWS("6.0.11", platform(CommonOS.Windows, CommonArchitecture.X86_64)),
+		OSX_ARM("7.0.2", platform(CommonOS.OS_X, CommonArchitecture.ARM_64)),
+		LINUX_LEGACY("3.4.7", platform(CommonOS.Linux, CommonArchitecture.X86_64)),
+		UNRESOLVABLE("1.0.0", platform(CommonOS.Windows, CommonArchitecture.X86_64));
+
+		private final Distribution distribution;
+
+		Representative(String version, Platform platform) {
+			this.distribution = Distribution.of(Version.of(version), platform);
+		}
+
+		public Distribution distribution() {
+			return distribution;
+		}
+
+		private static Platform platform(CommonOS os, CommonArchitecture architecture) {
+			return ImmutablePlatform.builder()
+				.operatingSystem(os)
+				.architecture(architecture)
+				.build();
+		}
+
+		private static Platform linux(CommonArchitecture architecture, LinuxDistribution distribution, de.flapdoodle.os.Version version) {
+			return ImmutablePlatform.builder()
+				.operatingSystem(CommonOS.Linux)
+				.architecture(architecture)
+				.distribution(distribution)
+				.version(version)
+				.build();
+		}
+	}
+
+	public static Outcome outcomeOf(Supplier<?> resolver) {
+		try {
+			return new Outcome(resolver.get(), null);
+		}
+		catch (RuntimeException ex) {
+			return new Outcome(null, ex.getClass().getName() + ": " + ex.getMessage());
+		}
+	}
+
+	public static final class Outcome {
+		private final Object result;
+		private final String failure;
+
+		private Outcome(Object result, String failure) {
+			this.result = result;
+			this.failure = failure;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Outcome other = (Outcome) o;
+			return java.util.Objects.equals(result, other.result) && java.util.Objects.equals(failure, other.failure);
+		}
+
+		@Override
+		public int hashCode() {
+			return java.util.Objects.hash(result, failure);
+		}
+
+		@Override
+		public String toString() {
+			return result != null ? result.toString() : failure;
+		}
+	}
+
+	public static class ToolsVersion implements Version, HasMongotoolsPackage {
+		private final Version toolsVersion;
+
+		public ToolsVersion(Version toolsVersion) {
+			this.toolsVersion = toolsVersion;
+		}
+
+		@Override
+		public String asInDownloadPath() {
+			return "any";
+		}
+
+		@Override
+		public Optional<? extends Version> mongotoolsVersion() {
+			return Optional.of(toolsVersion);
+		}
+
+		@Override
+		public String toString() {
+			return "ToolsVersion(" + toolsVersion.asInDownloadPath() + ")";
+		}
+
+		public static ToolsVersion of(Version toolsVersion) {
+			return new ToolsVersion(toolsVersion);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyPackageFinderTest {
+
+	@Test
+	void finderMustBeCreatedOnlyOnceEvenIfUsedConcurrently() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		LazyPackageFinder<PackageFinder> testee = LazyPackageFinder.of(() -> {
+			created.incrementAndGet();
+			return distribution -> Optional.empty();
+		});
+
+		assertThat(testee.isInitialized()).isFalse();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<PackageFinder>> results = IntStream.range(0, 64)
+				.mapToObj(i -> executor.submit(testee::get))
+				.collect(Collectors.toList());
+			for (Future<PackageFinder> result : results) {
+				assertThat(result.get()).isSameAs(testee.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertThat(testee.isInitialized()).isTrue();
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void onlyFinderForRequestedOsMustBeCreated() {
+		PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD);
+
+		resolver.packageFor(Distribution.of(Version.of("4.4.1"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Windows)
+			.architecture(CommonArchitecture.X86_64)
+			.build()));
+
+		List<Boolean> initialized = resolver.rules().rules().stream()
+			.map(rule -> ((LazyPackageFinder<?>) rule.finder()).isInitialized())
+			.collect(Collectors.toList());
+
+		// windows, osx, linux, solaris
+		assertThat(initialized).containsExactly(true, false, false, false);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchProgramTest {
+
+	@Test
+	void programMustMatchTreeForAllRules() {
+		List<DistributionMatch> matches = new ArrayList<>();
+		for (Command command : new Command[] { Command.MongoD, Command.MongoDump }) {
+			collect(new PlatformPackageResolver(command).rules(), matches);
+		}
+		List<Distribution> distributions = DistributionSamples.distributions();
+
+		for (DistributionMatch match : matches) {
+			MatchProgram program = MatchProgram.of(match);
+			for (Distribution distribution : distributions) {
+				assertThat(DistributionSamples.outcomeOf(() -> program.match(ResolutionContext.of(distribution))))
+					.describedAs("%s: %s", ExplainRules.explainMatch(match), distribution)
+					.isEqualTo(DistributionSamples.outcomeOf(() -> match.match(ResolutionContext.of(distribution))));
+			}
+		}
+	}
+
+	@Test
+	void nestedAndAny() {
+		DistributionMatch match = PlatformMatch.withOs(CommonOS.Windows)
+			.andThen(DistributionMatch.any(
+				new DistributionMatch.Any(VersionRange.of("1.0.0"), PlatformMatch.withOs(CommonOS.Linux)),
+				VersionRange.of("2.0.0", "2.1.0").andThen(DistributionMatch.all()),
+				new DistributionMatch.Any()));
+
+		MatchProgram program = MatchProgram.of(match);
+
+		assertThat(program.match(distribution(CommonOS.Windows, "1.0.0"))).isTrue();
+		assertThat(program.match(distribution(CommonOS.Windows, "2.0.5"))).isTrue();
+		assertThat(program.match(distribution(CommonOS.Windows, "1.5.0"))).isFalse();
+		assertThat(program.match(distribution(CommonOS.OS_X, "1.0.0"))).isFalse();
+		assertThat(MatchProgram.of(new DistributionMatch.Any()).match(distribution(CommonOS.Windows, "1.0.0"))).isFalse();
+	}
+
+	private static Distribution distribution(CommonOS os, String version) {
+		return Distribution.of(Version.of(version), ImmutablePlatform.builder()
+			.operatingSystem(os)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+	}
+
+	private static void collect(PackageFinderRules rules, List<DistributionMatch> matches) {
+		for (PackageFinderRule rule : rules.rules()) {
+			matches.add(rule.match());
+			PackageFinder finder = LazyPackageFinder.unwrap(rule.finder());
+			if (finder instanceof HasPlatformMatchRules) {
+				collect(((HasPlatformMatchRules) finder).rules(), matches);
+			}
+		}
+	}
+}
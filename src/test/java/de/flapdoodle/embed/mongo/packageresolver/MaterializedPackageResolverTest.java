@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.linux.UbuntuVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MaterializedPackageResolverTest {
+
+	private static final ImmutablePlatform UBUNTU = ImmutablePlatform.builder()
+		.operatingSystem(CommonOS.Linux)
+		.architecture(CommonArchitecture.X86_64)
+		.version(UbuntuVersion.Ubuntu_22_04)
+		.build();
+
+	@Test
+	public void knownDistributionMustBeMaterialized() {
+		MaterializedPackageResolver resolver = MaterializedPackageResolver.of(PlatformPackageResolver.compiled(Command.MongoD),
+			Collections.singletonList(UBUNTU), Collections.singletonList(Version.of("6.0.11")));
+
+		PackageResolution resolution = resolver.resolve(Distribution.of(Version.of("6.0.11"), ImmutablePlatform.copyOf(UBUNTU)));
+
+		assertThat(resolution.orElseThrow().url()).contains("ubuntu2204-6.0.11");
+		assertThat(resolver.stats()).isEqualTo(CacheStats.of(1, 0, 0, 1));
+	}
+
+	@Test
+	public void serverPackageMustNotDependOnToolsVersion() {
+		MaterializedPackageResolver resolver = MaterializedPackageResolver.of(PlatformPackageResolver.compiled(Command.MongoD),
+			Collections.singletonList(UBUNTU), Collections.singletonList(Version.of("6.0.11")));
+
+		PackageResolution resolution = resolver.resolve(Distribution.of(new VersionWithTools("6.0.11", "100.9.0"), UBUNTU));
+
+		assertThat(resolution.orElseThrow().url()).contains("ubuntu2204-6.0.11");
+		assertThat(resolver.stats()).isEqualTo(CacheStats.of(1, 0, 0, 1));
+	}
+
+	@Test
+	public void unknownDistributionMustBeResolvedByDelegate() {
+		MaterializedPackageResolver resolver = MaterializedPackageResolver.of(PlatformPackageResolver.compiled(Command.MongoD),
+			Collections.singletonList(UBUNTU), Collections.singletonList(Version.of("6.0.11")));
+
+		assertThat(resolver.resolve(Distribution.of(Version.of("7.0.2"), UBUNTU)).orElseThrow().url()).contains("ubuntu2204-7.0.2");
+		assertThat(resolver.resolve(DistributionSamples.Representative.UNRESOLVABLE.distribution()).isResolved()).isFalse();
+		assertThat(resolver.stats()).isEqualTo(CacheStats.of(0, 2, 0, 1));
+	}
+
+	@Test
+	public void knownVersionsMustContainEveryVersionOfRanges() {
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux).andThen(DistributionMatch.any(
+				VersionRange.of("3.0.0", "3.0.3"),
+				VersionRange.of("7.0.0-rc10"),
+				VersionRange.of("3.2.1", "4.0.0"))), PackageFinder.failWithMessage(distribution -> "fail")));
+
+		assertThat(MaterializedPackageResolver.knownVersions(rules))
+			.extracting(Version::asInDownloadPath)
+			.containsExactly("3.0.0", "3.0.1", "3.0.2", "3.0.3", "7.0.0-rc10", "3.2.1", "4.0.0");
+	}
+
+	@Test
+	public void knownDistributionsMustBeMaterializedByDefault() {
+		MaterializedPackageResolver resolver = MaterializedPackageResolver.of(PlatformPackageResolver.compiled(Command.MongoD));
+
+		assertThat(resolver.stats().size()).isGreaterThan(10000);
+		assertThat(resolver.resolve(DistributionSamples.Representative.UBUNTU_22_04_ARM.distribution()).orElseThrow().url())
+			.contains("aarch64-ubuntu2204-7.0.2");
+		// no linux distribution, resolved with the fallback to ubuntu
+		assertThat(resolver.resolve(DistributionSamples.Representative.LINUX_LEGACY.distribution()).isResolved()).isTrue();
+		assertThat(resolver.stats().hits()).isEqualTo(1);
+		assertThat(resolver.stats().misses()).isEqualTo(1);
+	}
+
+	static class VersionWithTools implements Version, HasMongotoolsPackage {
+		private final String version;
+		private final Version toolsVersion;
+
+		VersionWithTools(String version, String toolsVersion) {
+			this.version = version;
+			this.toolsVersion = Version.of(toolsVersion);
+		}
+
+		@Override
+		public String asInDownloadPath() {
+			return version;
+		}
+
+		@Override
+		public Optional<? extends Version> mongotoolsVersion() {
+			return Optional.of(toolsVersion);
+		}
+	}
+}
@@ -86,5 +86,7 @@ public class MongoPackageParser {
 
 		
 		new SourceCodeGenerator(targetDirectory).generate(tree);
+		// binary rule catalogs are written from the compiled finders
+		System.out.println("copy generated finders to src/main/java, compile and run "+RuleCatalogResources.class.getSimpleName()+" to update the rule catalogs");
 	}
 }
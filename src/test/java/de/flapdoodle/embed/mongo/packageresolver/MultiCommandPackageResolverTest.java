@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.linux.UbuntuVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultiCommandPackageResolverTest {
+
+	@Test
+	void executableMustMatchCommand() {
+		Distribution distribution = Distribution.of(Version.of("6.0.11"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Windows)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+
+		Map<Command, Package> packages = MultiCommandPackageResolver.of(Command.Mongo, Command.MongoD, Command.MongoS)
+			.packagesFor(distribution);
+
+		assertThat(packages).containsOnlyKeys(Command.MongoD, Command.MongoS, Command.Mongo);
+		assertThat(packages.get(Command.Mongo).fileSet().entries())
+			.extracting(it -> it.destination())
+			.containsExactly("mongo.exe");
+		assertThat(packages.get(Command.MongoS).url()).isEqualTo(packages.get(Command.MongoD).url());
+		assertThat(packages.get(Command.MongoS).fileSet())
+			.isEqualTo(new PlatformPackageResolver(Command.MongoS).packageFor(distribution).fileSet());
+	}
+
+	@Test
+	void toolsMustShareOnePackage() {
+		Distribution distribution = Distribution.of(DistributionSamples.ToolsVersion.of(Version.of("100.7.5")), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.X86_64)
+			.version(UbuntuVersion.Ubuntu_22_04)
+			.build());
+
+		Map<Command, Package> packages = MultiCommandPackageResolver.of(Command.MongoDump, Command.MongoRestore)
+			.packagesFor(distribution);
+
+		assertThat(packages.get(Command.MongoDump).url()).contains("100.7.5")
+			.isEqualTo(packages.get(Command.MongoRestore).url());
+		assertThat(packages.get(Command.MongoRestore).fileSet().entries())
+			.extracting(it -> it.destination())
+			.containsExactly("mongorestore");
+	}
+
+	@Test
+	void unresolvableCommandMustFail() {
+		Distribution distribution = Distribution.of(Version.of("1.0.0"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Windows)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+
+		MultiCommandPackageResolver testee = MultiCommandPackageResolver.of(Command.MongoD, Command.MongoDump);
+		assertThat(testee.resolve(distribution).values()).noneMatch(PackageResolution::isResolved);
+		assertThatThrownBy(() -> testee.packagesFor(distribution))
+			.isInstanceOf(UnresolvablePackageException.class);
+	}
+
+	@Test
+	void failingKindMustNotFailOtherKinds() {
+		Distribution distribution = Distribution.of(Version.of("7.0.2"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+
+		Map<Command, PackageResolution> resolutions = MultiCommandPackageResolver.of(Command.MongoD, Command.MongoS, Command.MongoDump)
+			.resolve(distribution);
+
+		assertThat(resolutions.get(Command.MongoD).isResolved()).isTrue();
+		assertThat(resolutions.get(Command.MongoS).orElseThrow().fileSet().entries())
+			.extracting(it -> it.destination())
+			.containsExactly("mongos");
+		assertThat(resolutions.get(Command.MongoDump).isResolved()).isFalse();
+		assertThat(resolutions.get(Command.MongoDump).error())
+			.hasValueSatisfying(error -> assertThat(error).hasMessageContaining("linux distribution not supported"));
+		assertThatThrownBy(() -> resolutions.get(Command.MongoDump).orElseThrow())
+			.isInstanceOf(UnresolvablePackageException.class)
+			.hasCauseInstanceOf(IllegalArgumentException.class);
+	}
+}
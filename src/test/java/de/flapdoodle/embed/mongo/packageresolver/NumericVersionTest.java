@@ -20,6 +20,7 @@
  */
 package de.flapdoodle.embed.mongo.packageresolver;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -142,4 +143,73 @@ class NumericVersionTest {
 			.isTrue();
 	}
 
-}
\ No newline at end of file
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"1.2.3|1.2.4",
+		"1.2.3|1.2.3-rc0",
+		"7.0.0-rc2|7.0.0-rc3",
+		"7.0.0-alpha1|7.0.0-beta1",
+		"7.0.0-beta1|7.0.0-rc1",
+		"7.0.0-rc9|7.0.1",
+	})
+	public void packedMustBeOrderedLikeVersion(String sample) {
+		String[] parts = sample.split("\\|");
+		NumericVersion left = NumericVersion.of(parts[0]);
+		NumericVersion right = NumericVersion.of(parts[1]);
+		assertThat(left.isOlder(right))
+			.describedAs("%s < %s", left, right)
+			.isTrue();
+		assertThat(left.packed())
+			.describedAs("%s < %s (packed)", left, right)
+			.isLessThan(right.packed());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"7.0.0|7.0.0-M1",
+		"7.0.0-M1|7.0.0-rc1",
+		"7.0.0-M1|7.0.0-M2",
+		"7.0.0-rc01|7.0.0-rc1",
+		"7.0.0-rc1|7.0.0-rc10",
+		"7.0.0-rc10|7.0.0-rc2",
+		"7.0.0-rc|7.0.0-rc0",
+		"100.9.0|latest",
+	})
+	public void buildsMustBeOrderedAsStrings(String sample) {
+		String[] parts = sample.split("\\|");
+		NumericVersion left = NumericVersion.of(parts[0]);
+		NumericVersion right = NumericVersion.of(parts[1]);
+		assertThat(left.isOlder(right))
+			.describedAs("%s < %s", left, right)
+			.isTrue();
+		assertThat(right.isNewer(left))
+			.describedAs("%s > %s", right, left)
+			.isTrue();
+	}
+
+	@Test
+	public void rangeMustContainVersionsInStringOrderOfBuilds() {
+		assertThat(PackedVersion.isBetween(NumericVersion.of("7.0.0"), NumericVersion.of("7.0.0-M1"), NumericVersion.of("7.0.0-rc1")))
+			.isTrue();
+		assertThat(PackedVersion.isBetween(NumericVersion.of("7.0.0-rc1"), NumericVersion.of("7.0.0-rc10"), NumericVersion.of("7.0.0-rc2")))
+			.isTrue();
+		assertThat(PackedVersion.isBetween(NumericVersion.of("7.0.0-rc1"), NumericVersion.of("7.0.0-rc01"), NumericVersion.of("7.0.0-rc2")))
+			.isFalse();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"1.2.3", "7.0.0-rc9", "7.0.0-alpha1", "100.0.0-beta3"
+	})
+	public void rankedVersionsAreExactlyPacked(String version) {
+		assertThat(PackedVersion.isExact(NumericVersion.of(version).packed())).isTrue();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"7.0.0-M1", "7.0.0-rc01", "7.0.0-rc10", "7.0.0-rc", "latest"
+	})
+	public void unrankedVersionsAreNotExactlyPacked(String version) {
+		assertThat(PackedVersion.isExact(NumericVersion.of(version).packed())).isFalse();
+	}
+}
@@ -23,9 +23,21 @@ package de.flapdoodle.embed.mongo.packageresolver;
 import com.google.common.io.Resources;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.util.URLs;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class PlatformPackageResolverTest {
 
@@ -35,6 +47,109 @@ class PlatformPackageResolverTest {
       .isEqualToIgnoringNewLines(URLs.contentOf(Resources.getResource(PlatformPackageResolverTest.class,"explainedSnapshot.txt"), StandardCharsets.UTF_8));
   }
 
+  @Test
+  public void explanationMustBeComputedOnce() throws IOException {
+    PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD);
+    StringBuilder written = new StringBuilder();
+    resolver.explainTo(written);
+
+    Assertions.assertThat(resolver.explain()).isSameAs(resolver.explain());
+    Assertions.assertThat(written.toString()).isEqualTo(resolver.explain());
+  }
+
+  @Test
+  public void unresolvableDistributionMustNotThrowException() {
+    AtomicInteger explanations = new AtomicInteger();
+    Distribution unknown = Distribution.of(Version.of("1.0.0"), ImmutablePlatform.builder()
+      .operatingSystem(CommonOS.Windows)
+      .architecture(CommonArchitecture.X86_64)
+      .build());
+    PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD) {
+      @Override
+      public String explainFailure(Distribution distribution) {
+        explanations.incrementAndGet();
+        return super.explainFailure(distribution);
+      }
+    };
+
+    PackageResolution resolution = resolver.resolve(unknown);
+    Assertions.assertThat(resolution.isResolved()).isFalse();
+    Assertions.assertThat(resolution.asOptional()).isEmpty();
+    Assertions.assertThat(explanations.get()).isEqualTo(0);
+
+    Assertions.assertThatThrownBy(resolution::orElseThrow)
+      .isInstanceOf(UnresolvablePackageException.class)
+      .hasMessageStartingWith("could not resolve package for " + unknown)
+      .hasMessageContaining(resolver.explainFailure(unknown));
+    Assertions.assertThat(resolution.explanation()).isEqualTo(resolver.explainFailure(unknown));
+  }
+
+  @Test
+  public void failureExplanationMustOnlyContainRulesForPlatform() {
+    PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD);
+    Distribution unknown = Distribution.of(Version.of("4.3.0"), ImmutablePlatform.builder()
+      .operatingSystem(CommonOS.Windows)
+      .architecture(CommonArchitecture.X86_64)
+      .build());
+
+    String explanation = resolver.explainFailure(unknown);
+
+    Assertions.assertThat(explanation)
+      .startsWith("closest versions: 4.2.24 (older), 4.4.0 (newer)")
+      .contains("rules for os=Windows and cpuType=X86 and bitSize=B64:")
+      .contains("os=Windows")
+      .doesNotContain("os=Linux", "os=OS_X", "bitSize=B32");
+  }
+
+  @Test
+  public void resolveAllMustMatchSingleResolutionAndKeepOrder() {
+    PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD);
+    List<Distribution> distributions = DistributionSamples.distributions().stream()
+      .filter(it -> it.platform().operatingSystem() != CommonOS.Linux && !(it.version() instanceof DistributionSamples.ToolsVersion))
+      .collect(Collectors.toList());
+    List<Distribution> withDuplicates = new ArrayList<>(distributions);
+    withDuplicates.addAll(distributions);
+
+    Map<Distribution, PackageResolution> result = resolver.resolveAll(withDuplicates);
+
+    Assertions.assertThat(result.keySet()).containsExactlyElementsOf(distributions);
+    result.forEach((distribution, resolution) -> Assertions.assertThat(resolution.asOptional())
+      .describedAs("%s", distribution)
+      .isEqualTo(resolver.resolve(distribution).asOptional()));
+
+    Assertions.assertThat(resolver.resolveAll(distributions.stream()).map(PackageResolution::distribution))
+      .containsExactlyElementsOf(distributions);
+  }
+
+  @Test
+  public void failingResolutionMustNotFailOtherResolutions() {
+    PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoDump);
+    Distribution failing = Distribution.of(Version.of("7.0.2"), ImmutablePlatform.builder()
+      .operatingSystem(CommonOS.Linux)
+      .architecture(CommonArchitecture.X86_64)
+      .build());
+    Distribution resolvable = DistributionSamples.Representative.WINDOWS.distribution();
+
+    List<PackageResolution> result = resolver.resolveAll(Stream.of(failing, resolvable))
+      .collect(Collectors.toList());
+
+    Assertions.assertThat(result).extracting(PackageResolution::distribution).containsExactly(failing, resolvable);
+    Assertions.assertThat(result.get(0).isResolved()).isFalse();
+    Assertions.assertThat(result.get(0).error())
+      .hasValueSatisfying(error -> Assertions.assertThat(error).hasMessageContaining("linux distribution not supported"));
+    Assertions.assertThat(result.get(1).error()).isEmpty();
+  }
+
+  @Test
+  public void representativeSamplesMustResolveAsExpected() {
+    PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD);
+    for (DistributionSamples.Representative sample : DistributionSamples.Representative.values()) {
+      Assertions.assertThat(resolver.resolve(sample.distribution()).isResolved())
+        .describedAs("%s", sample)
+        .isEqualTo(sample != DistributionSamples.Representative.UNRESOLVABLE);
+    }
+  }
+
   @Test
   public void explainToolsSnapshotMustNotChangeWithoutNotice() {
     Assertions.assertThat(new PlatformPackageResolver(Command.MongoImport).explain())
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.linux.LinuxMintVersion;
+import de.flapdoodle.os.linux.UbuntuVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResolutionContextTest {
+
+	@Test
+	public void versionMustBeParsedOnlyOnce() {
+		CountingVersion version = new CountingVersion("6.0.11");
+		ResolutionContext context = ResolutionContext.of(Distribution.of(version, linux().withVersion(UbuntuVersion.Ubuntu_22_04)));
+
+		assertThat(context.version()).isEqualTo(NumericVersion.of(6, 0, 11));
+		assertThat(context.version()).isEqualTo(NumericVersion.of(6, 0, 11));
+		assertThat(context.withPlatform(linux()).version()).isEqualTo(NumericVersion.of(6, 0, 11));
+		assertThat(context.toolsVersion()).isEmpty();
+
+		assertThat(version.calls.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void resolutionMustParseVersionOnlyOnce() {
+		CountingVersion version = new CountingVersion("6.0.11");
+		new PlatformPackageResolver(Command.MongoD)
+			.packageFor(Distribution.of(version, linux().withVersion(LinuxMintVersion.LINUX_MINT_21_0)));
+
+		// parsed once for all version ranges, once for rendering the url
+		assertThat(version.calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void toolsVersionMustBeParsed() {
+		ResolutionContext context = ResolutionContext.of(Distribution.of(DistributionSamples.ToolsVersion.of(Version.of("100.7.5")), linux()));
+
+		assertThat(context.toolsVersion()).contains(NumericVersion.of(100, 7, 5));
+	}
+
+	private static ImmutablePlatform linux() {
+		return ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.X86_64)
+			.build();
+	}
+
+	static class CountingVersion implements Version {
+		private final String version;
+		private final AtomicInteger calls = new AtomicInteger();
+
+		CountingVersion(String version) {
+			this.version = version;
+		}
+
+		@Override
+		public String asInDownloadPath() {
+			calls.incrementAndGet();
+			return version;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.linux.LinuxDistribution;
+import de.flapdoodle.os.linux.LinuxMintVersion;
+import de.flapdoodle.os.linux.UbuntuVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResolutionTraceTest {
+
+	private final PlatformPackageResolver resolver = new PlatformPackageResolver(Command.MongoD);
+
+	@Test
+	void traceMustContainPathToPackage() {
+		Distribution distribution = DistributionSamples.Representative.UBUNTU_22_04_ARM.distribution();
+
+		ResolutionTrace trace = resolver.trace(distribution);
+
+		assertThat(trace.result()).isEqualTo(resolver.resolve(distribution).asOptional());
+		assertThat(trace.steps()).hasSize(3);
+		assertThat(trace.steps().get(0).rejectedBy()).contains(ResolutionTrace.Predicate.OS);
+		assertThat(trace.steps().get(1).rejectedBy()).contains(ResolutionTrace.Predicate.OS);
+		assertThat(trace.steps().get(2).matches()).isTrue();
+		assertThat(trace.producer()).isPresent();
+		assertThat(trace.producer().get().finder()).isInstanceOf(UrlTemplatePackageFinder.class);
+		assertThat(trace.producer().get().result().get().url()).contains("aarch64-ubuntu2204-7.0.2");
+	}
+
+	@Test
+	void traceMustContainRejectedPredicates() {
+		Distribution windowsArm = Distribution.of(Version.of("6.0.11"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Windows)
+			.architecture(CommonArchitecture.ARM_64)
+			.build());
+
+		ResolutionTrace trace = resolver.trace(windowsArm);
+
+		assertThat(trace.result()).isEmpty();
+		assertThat(trace.producer()).isEmpty();
+		assertThat(rejectedBy(trace.steps().get(0).nested())).contains(ResolutionTrace.Predicate.CPU_TYPE);
+
+		ResolutionTrace unresolvable = resolver.trace(DistributionSamples.Representative.UNRESOLVABLE.distribution());
+		assertThat(rejectedBy(unresolvable.steps().get(0).nested())).contains(ResolutionTrace.Predicate.VERSION_RANGE);
+	}
+
+	@Test
+	void traceMustContainFallback() {
+		Distribution linuxMint = Distribution.of(Version.of("5.0.2"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.X86_64)
+			.distribution(LinuxDistribution.LinuxMint)
+			.version(LinuxMintVersion.LINUX_MINT_19_0)
+			.build());
+
+		ResolutionTrace trace = resolver.trace(linuxMint);
+
+		List<ResolutionTrace.Step> withFallback = trace.steps().get(2).nested().stream()
+			.filter(step -> step.fallback().isPresent())
+			.collect(Collectors.toList());
+		assertThat(withFallback).hasSize(1);
+		assertThat(withFallback.get(0).fallback().get().platform().version()).contains(UbuntuVersion.Ubuntu_18_04);
+		assertThat(trace.producer().get().result()).isEqualTo(trace.result());
+		assertThat(trace.result().get().url()).contains("ubuntu1804");
+	}
+
+	@Test
+	void traceMustEndWithFailedFinder() {
+		Distribution legacyLinux = Distribution.of(Version.of("1.0.0"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Linux)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+
+		ResolutionTrace trace = resolver.trace(legacyLinux);
+
+		assertThat(trace.result()).isEmpty();
+		assertThat(trace.producer()).isEmpty();
+		assertThat(trace.failure()).isPresent();
+		assertThat(trace.failure().get().finder().getClass().getSimpleName()).isEqualTo("FallbackToUbuntuOrFailPackageFinder");
+		assertThat(trace.failure().get().fallback().get().platform().version()).contains(UbuntuVersion.Ubuntu_20_04);
+		assertThat(trace.failure().get().error().get())
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("linux distribution not supported");
+	}
+
+	private static List<ResolutionTrace.Predicate> rejectedBy(List<ResolutionTrace.Step> steps) {
+		return steps.stream()
+			.filter(step -> step.rejectedBy().isPresent())
+			.map(step -> step.rejectedBy().get())
+			.collect(Collectors.toList());
+	}
+}
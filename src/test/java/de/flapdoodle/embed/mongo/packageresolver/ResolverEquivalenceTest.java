@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.mongo.packageresolver.linux.*;
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * every other way to resolve a package must resolve the same package (or fail the same way)
+ * as the rules it is derived from, for all {@link DistributionSamples#distributions()}
+ */
+class ResolverEquivalenceTest {
+
+	private static final List<Distribution> DISTRIBUTIONS = DistributionSamples.distributions();
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("equivalentResolvers")
+	public void mustResolveSameAsRules(String name, Resolver expected, Resolver resolver) {
+		for (Distribution distribution : DISTRIBUTIONS) {
+			assertThat(DistributionSamples.outcomeOf(() -> resolver.packageFor(distribution)))
+				.describedAs("%s: %s", name, distribution)
+				.isEqualTo(DistributionSamples.outcomeOf(() -> expected.packageFor(distribution)));
+		}
+	}
+
+	public static Stream<Arguments> equivalentResolvers() {
+		MultiCommandPackageResolver multiCommand = MultiCommandPackageResolver.all();
+
+		Stream.Builder<Arguments> ret = Stream.builder();
+		for (Command command : Command.values()) {
+			PackageFinderRules rules = new PlatformPackageResolver(command).rules();
+			Resolver expected = rules::packageFor;
+
+			ret.add(Arguments.of("compiled " + command, expected, (Resolver) rules.compile()::packageFor));
+			ret.add(Arguments.of("multi command " + command, expected,
+				(Resolver) distribution -> rethrowError(multiCommand.resolve(distribution).get(command)).asOptional()));
+
+			for (AbstractPackageFinder finder : generatedFinders(command)) {
+				ret.add(Arguments.of("pruned " + finder.getClass().getSimpleName() + " " + command,
+					(Resolver) finder.rules()::packageFor, (Resolver) RuleAnalyzer.prune(finder.rules())::packageFor));
+			}
+		}
+		// materializing all packages is expensive, one command per rule kind
+		for (Command command : new Command[] { Command.MongoD, Command.MongoDump }) {
+			MaterializedPackageResolver materialized = MaterializedPackageResolver.of(PlatformPackageResolver.compiled(command));
+			ret.add(Arguments.of("materialized " + command, (Resolver) new PlatformPackageResolver(command).rules()::packageFor,
+				(Resolver) distribution -> materialized.resolve(distribution).asOptional()));
+		}
+		return ret.build();
+	}
+
+	private static PackageResolution rethrowError(PackageResolution resolution) {
+		if (resolution.error().isPresent()) {
+			throw resolution.error().get();
+		}
+		return resolution;
+	}
+
+	static List<AbstractPackageFinder> generatedFinders(Command command) {
+		return Arrays.asList(
+			new WindowsPackageFinder(command),
+			new OSXPackageFinder(command),
+			new SolarisPackageFinder(command),
+			new LinuxLegacyPackageFinder(command),
+			new UbuntuPackageFinder(command),
+			new DebianPackageFinder(command),
+			new AmazonPackageFinder(command),
+			new CentosRedhatPackageFinder(command)
+		);
+	}
+
+	interface Resolver extends Function<Distribution, Optional<Package>> {
+		default Optional<Package> packageFor(Distribution distribution) {
+			return apply(distribution);
+		}
+	}
+}
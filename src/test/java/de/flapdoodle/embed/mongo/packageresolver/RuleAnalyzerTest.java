@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.FileSet;
+import de.flapdoodle.embed.process.config.store.FileType;
+import de.flapdoodle.embed.process.distribution.ArchiveType;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.BitSize;
+import de.flapdoodle.os.CPUType;
+import de.flapdoodle.os.CommonOS;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleAnalyzerTest {
+
+	@Test
+	void windowsRuleMustBeShadowedByEarlierRules() {
+		PackageFinderRules rules = new PlatformPackageResolver(Command.MongoD).rules();
+
+		RuleAnalysis analysis = RuleAnalyzer.analyze(rules);
+
+		assertThat(analysis.findings()).hasSize(1);
+		RuleAnalysis.Finding finding = analysis.findings().get(0);
+		assertThat(finding.kind()).isEqualTo(RuleAnalysis.Kind.SHADOWED);
+		assertThat(finding.path()).containsExactly(0, 5);
+		assertThat(urlTemplateOf(finding.rule())).isEqualTo("/win32/mongodb-win32-x86_64-{version}.zip");
+		assertThat(finding.shadowedBy()).extracting(RuleAnalyzerTest::urlTemplateOf)
+			.containsExactly("/win32/mongodb-win32-x86_64-2008plus-ssl-{version}.zip", "/win32/mongodb-win32-x86_64-2008plus-{version}.zip");
+	}
+
+	@Test
+	void ruleMustNotBeShadowedIfAnyVersionIsLeft() {
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(DistributionMatch.any(
+				VersionRange.of("3.0.0", "3.0.15"), VersionRange.of("3.2.0", "3.2.22"))), "a"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).withBitSize(BitSize.B64).andThen(
+				VersionRange.of("3.0.0", "3.2.22")), "gap between 3.0 and 3.2"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(ToolVersionRange.of("100.0.0", "100.5.0")), "tools"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(VersionRange.of("3.0.1", "3.0.1-rc1")), "exact with build"))
+			.with(rule(PlatformMatch.any().andThen(VersionRange.of("3.0.1")), "any os"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Windows), "other os"));
+
+		assertThat(RuleAnalyzer.analyze(rules).findings()).isEmpty();
+	}
+
+	@Test
+	void ruleMustBeShadowedIfAllVersionsAreCovered() {
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(DistributionMatch.any(
+				VersionRange.of("3.0.0", "3.0.15"), VersionRange.of("3.0.16", "3.2.22"))), "a"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(ToolVersionRange.of("100.0.0", "100.5.0")), "b"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).withBitSize(BitSize.B64).andThen(
+				VersionRange.of("3.0.10", "3.1.0")), "versions"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(ToolVersionRange.of("100.1.0", "100.2.0")), "tools"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(VersionRange.of("3.0.1")), "exact"));
+
+		assertThat(RuleAnalyzer.analyze(rules).findings())
+			.extracting(RuleAnalysis.Finding::path)
+			.containsExactly(Arrays.asList(2), Arrays.asList(3), Arrays.asList(4));
+	}
+
+	@Test
+	void ruleMustNotBeShadowedByFinderWhichCanFail() {
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), PackageFinder.failWithMessage(distribution -> "no")))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux), "after"));
+
+		assertThat(RuleAnalyzer.analyze(rules).findings()).isEmpty();
+	}
+
+	@Test
+	void nestedRuleWithContradictingPlatformMustBeUnreachable() {
+		PackageFinderRules nested = PackageFinderRules.empty()
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).withCpuType(CPUType.X86), "linux"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Windows), "windows"));
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.with(PackageFinderRule.of(PlatformMatch.withOs(CommonOS.Linux), new AbstractPackageFinder(Command.MongoD, nested) {
+			}));
+
+		List<RuleAnalysis.Finding> findings = RuleAnalyzer.analyze(rules).findings();
+
+		assertThat(findings).hasSize(1);
+		assertThat(findings.get(0).kind()).isEqualTo(RuleAnalysis.Kind.UNREACHABLE);
+		assertThat(findings.get(0).path()).containsExactly(0, 1);
+	}
+
+	@Test
+	void pruneMustDropShadowedRules() {
+		PackageFinderRules rules = PackageFinderRules.empty()
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).andThen(VersionRange.of("3.0.0", "3.2.22")), "a"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Linux).withBitSize(BitSize.B64).andThen(VersionRange.of("3.0.10", "3.1.0")), "shadowed"))
+			.with(rule(PlatformMatch.withOs(CommonOS.Windows), "b"));
+
+		assertThat(RuleAnalyzer.prune(rules).rules())
+			.extracting(RuleAnalyzerTest::urlTemplateOf)
+			.containsExactly("/a-{version}.tgz", "/b-{version}.tgz");
+	}
+
+	@Test
+	void prunedRulesMustNotContainFindings() {
+		for (Command command : Command.values()) {
+			for (AbstractPackageFinder finder : ResolverEquivalenceTest.generatedFinders(command)) {
+				assertThat(RuleAnalyzer.analyze(RuleAnalyzer.prune(finder.rules())).findings())
+					.describedAs("%s: %s", command, finder.getClass().getSimpleName())
+					.isEmpty();
+			}
+		}
+	}
+
+	@Test
+	void catalogMustPruneRulesIfEnabled() {
+		int size = new WindowsPackageFinder(Command.MongoD).rules().rules().size();
+
+		assertThat(windowsCatalog().rules(Command.MongoD).rules()).hasSize(size);
+
+		System.setProperty(RuleCatalog.PRUNE_SHADOWED_RULES, "true");
+		try {
+			assertThat(windowsCatalog().rules(Command.MongoD).rules()).hasSize(size - 1);
+		}
+		finally {
+			System.clearProperty(RuleCatalog.PRUNE_SHADOWED_RULES);
+		}
+	}
+
+	private static RuleCatalog windowsCatalog() {
+		return RuleCatalog.of(kind -> PackageFinderRules.builder()
+			.addAllRules(new WindowsPackageFinder(Command.MongoD).rules().rules())
+			.build(), command -> RuleCatalog.unboundFileSet());
+	}
+
+	private static PackageFinderRule rule(DistributionMatch match, String name) {
+		return PackageFinderRule.of(match, UrlTemplatePackageFinder.builder()
+			.fileSet(FileSet.builder().addEntry(FileType.Executable, "mongod").build())
+			.archiveType(ArchiveType.TGZ)
+			.urlTemplate("/" + name + "-{version}.tgz")
+			.build());
+	}
+
+	private static String urlTemplateOf(PackageFinderRule rule) {
+		return ((UrlTemplatePackageFinder) LazyPackageFinder.unwrap(rule.finder())).urlTemplate();
+	}
+}
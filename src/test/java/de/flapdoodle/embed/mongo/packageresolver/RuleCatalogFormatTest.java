@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleCatalogFormatTest {
+
+	@Test
+	void resourcesMustMatchGeneratedRules() throws IOException {
+		for (Class<? extends AbstractPackageFinder> type : RuleCatalogResources.GENERATED_FINDERS) {
+			try (InputStream resource = type.getResourceAsStream(RuleCatalog.resourceName(type))) {
+				assertThat(resource)
+					.describedAs("resource for %s", type)
+					.isNotNull();
+				assertThat(resource)
+					.describedAs("%s is outdated, run %s", RuleCatalog.resourceName(type), RuleCatalogResources.class.getSimpleName())
+					.hasBinaryContent(RuleCatalogResources.generatedCatalog(type));
+			}
+		}
+	}
+
+	@Test
+	void committedResourcesMustMatchGeneratedRules() throws IOException {
+		Path resourceDirectory = Paths.get("src", "main", "resources");
+		Set<Path> expected = new LinkedHashSet<>();
+		for (Class<? extends AbstractPackageFinder> type : RuleCatalogResources.GENERATED_FINDERS) {
+			Path file = resourceDirectory.resolve(type.getPackage().getName().replace('.', '/'))
+				.resolve(RuleCatalog.resourceName(type));
+			expected.add(file);
+			assertThat(file)
+				.describedAs("%s is outdated, run %s", file, RuleCatalogResources.class.getSimpleName())
+				.hasBinaryContent(RuleCatalogResources.generatedCatalog(type));
+		}
+
+		try (Stream<Path> files = Files.walk(resourceDirectory)) {
+			assertThat(files.filter(it -> it.getFileName().toString().endsWith(".rules")))
+				.describedAs("catalogs without generated finder")
+				.containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	@Test
+	void readRulesMustBeSameAsGeneratedRules() throws IOException {
+		for (Class<? extends AbstractPackageFinder> type : RuleCatalogResources.GENERATED_FINDERS) {
+			RuleCatalog catalog = RuleCatalogResources.catalogOf(type);
+			byte[] bytes = RuleCatalogResources.generatedCatalog(type);
+
+			Map<RuleCatalog.Kind, ImmutablePackageFinderRules> read = new EnumMap<>(RuleCatalog.Kind.class);
+			for (RuleCatalog.Kind kind : RuleCatalog.Kind.values()) {
+				Optional<ImmutablePackageFinderRules> rules = RuleCatalogFormat.read(new ByteArrayInputStream(bytes), kind);
+				assertThat(rules).isPresent();
+				assertThat(ExplainRules.explain(rules.get()))
+					.describedAs("%s: %s", type, kind)
+					.isEqualTo(ExplainRules.explain(catalog.generatedRules(kind)));
+				read.put(kind, rules.get());
+			}
+
+			assertThat(RuleCatalogFormat.asBytes(read)).isEqualTo(bytes);
+		}
+	}
+
+	@Test
+	void missingKindMustBeEmpty() throws IOException {
+		Map<RuleCatalog.Kind, PackageFinderRules> onlyServer = new EnumMap<>(RuleCatalog.Kind.class);
+		onlyServer.put(RuleCatalog.Kind.Server, PackageFinderRules.empty());
+		byte[] bytes = RuleCatalogFormat.asBytes(onlyServer);
+
+		assertThat(RuleCatalogFormat.read(new ByteArrayInputStream(bytes), RuleCatalog.Kind.Server)).contains(PackageFinderRules.empty());
+		assertThat(RuleCatalogFormat.read(new ByteArrayInputStream(bytes), RuleCatalog.Kind.Tools)).isEmpty();
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.mongo.packageresolver.linux.AmazonPackageFinder;
+import de.flapdoodle.embed.mongo.packageresolver.linux.CentosRedhatPackageFinder;
+import de.flapdoodle.embed.mongo.packageresolver.linux.DebianPackageFinder;
+import de.flapdoodle.embed.mongo.packageresolver.linux.LinuxLegacyPackageFinder;
+import de.flapdoodle.embed.mongo.packageresolver.linux.UbuntuPackageFinder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * writes the binary rule catalogs of all generated finders, run after the generated finders are compiled
+ * (see {@link MongoPackageParser})
+ */
+public class RuleCatalogResources {
+
+	static final List<Class<? extends AbstractPackageFinder>> GENERATED_FINDERS = Arrays.asList(
+		WindowsPackageFinder.class,
+		OSXPackageFinder.class,
+		SolarisPackageFinder.class,
+		UbuntuPackageFinder.class,
+		DebianPackageFinder.class,
+		CentosRedhatPackageFinder.class,
+		AmazonPackageFinder.class,
+		LinuxLegacyPackageFinder.class
+	);
+
+	public static void main(String[] args) throws IOException {
+		Path resourceDirectory = Paths.get("").toAbsolutePath()
+			.resolve("src").resolve("main").resolve("resources");
+		if (args.length > 0) {
+			resourceDirectory = Paths.get(args[0]);
+		}
+
+		for (Class<? extends AbstractPackageFinder> type : GENERATED_FINDERS) {
+			Path file = resourceDirectory.resolve(type.getPackage().getName().replace('.', '/'))
+				.resolve(RuleCatalog.resourceName(type));
+			System.out.println("write " + file);
+			Files.createDirectories(file.getParent());
+			Files.write(file, generatedCatalog(type));
+		}
+	}
+
+	static byte[] generatedCatalog(Class<? extends AbstractPackageFinder> type) {
+		RuleCatalog catalog = catalogOf(type);
+		return RuleCatalogFormat.asBytes(RuleCatalogFormat.catalogOf(catalog::generatedRules));
+	}
+
+	static RuleCatalog catalogOf(Class<? extends AbstractPackageFinder> type) {
+		try {
+			Field field = type.getDeclaredField("CATALOG");
+			field.setAccessible(true);
+			return (RuleCatalog) field.get(null);
+		}
+		catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new IllegalArgumentException("no rule catalog in " + type, e);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.mongo.packageresolver.linux.UbuntuPackageFinder;
+import de.flapdoodle.embed.process.config.store.FileSet;
+import de.flapdoodle.embed.process.config.store.FileType;
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleCatalogTest {
+
+	@Test
+	void commandsOfSameKindMustShareMatchTrees() {
+		List<PackageFinderRule> mongod = new WindowsPackageFinder(Command.MongoD).rules().rules();
+		List<PackageFinderRule> mongos = new WindowsPackageFinder(Command.MongoS).rules().rules();
+
+		assertThat(mongod).hasSameSizeAs(mongos);
+		for (int i = 0; i < mongod.size(); i++) {
+			assertThat(mongod.get(i).match()).isSameAs(mongos.get(i).match());
+			assertThat(mongod.get(i).finder()).isNotEqualTo(mongos.get(i).finder());
+		}
+	}
+
+	@Test
+	void rulesOfSameCommandMustBeReused() {
+		assertThat(new WindowsPackageFinder(Command.MongoDump).rules())
+			.isSameAs(new WindowsPackageFinder(Command.MongoDump).rules());
+	}
+
+	@Test
+	void fileSetMustBeBoundToCommand() {
+		Distribution distribution = Distribution.of(Version.of("4.4.1"), ImmutablePlatform.builder()
+			.operatingSystem(CommonOS.Windows)
+			.architecture(CommonArchitecture.X86_64)
+			.build());
+
+		Package mongod = new WindowsPackageFinder(Command.MongoD).packageFor(distribution).get();
+		Package mongos = new WindowsPackageFinder(Command.MongoS).packageFor(distribution).get();
+
+		assertThat(mongod.url()).isEqualTo(mongos.url());
+		assertThat(mongod.fileSet().entries()).extracting(it -> it.destination()).containsExactly("mongod.exe");
+		assertThat(mongos.fileSet().entries()).extracting(it -> it.destination()).containsExactly("mongos.exe");
+	}
+
+	@Test
+	void kindOfCommand() {
+		assertThat(RuleCatalog.Kind.of(Command.MongoD)).isEqualTo(RuleCatalog.Kind.Server);
+		assertThat(RuleCatalog.Kind.of(Command.Mongo)).isEqualTo(RuleCatalog.Kind.Server);
+		assertThat(RuleCatalog.Kind.of(Command.MongoImport)).isEqualTo(RuleCatalog.Kind.Tools);
+		assertThat(RuleCatalog.Kind.of(Command.MongoRestore)).isEqualTo(RuleCatalog.Kind.Tools);
+	}
+
+	@Test
+	void undecodableResourceMustFallBackToGeneratedRules() {
+		RuleCatalog ubuntu = RuleCatalogResources.catalogOf(UbuntuPackageFinder.class);
+
+		for (Class<?> type : Arrays.asList(UnknownPlatformVersion.class, Truncated.class)) {
+			assertThat(type.getResource(RuleCatalog.resourceName(type))).isNotNull();
+
+			RuleCatalog testee = RuleCatalog.of(type, ubuntu::generatedRules, command -> FileSet.builder()
+				.addEntry(FileType.Executable, command.commandName())
+				.build());
+
+			for (RuleCatalog.Kind kind : RuleCatalog.Kind.values()) {
+				Command command = kind == RuleCatalog.Kind.Server ? Command.MongoD : Command.MongoDump;
+				assertThat(ExplainRules.explain(testee.rules(command)))
+					.describedAs("%s: %s", type.getSimpleName(), kind)
+					.isEqualTo(ExplainRules.explain(ubuntu.generatedRules(kind)));
+			}
+		}
+	}
+
+	// anchors of broken catalog resources, see RuleCatalog#resourceName
+	static class UnknownPlatformVersion {
+	}
+
+	static class Truncated {
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnresolvablePackageExceptionTest {
+
+	@Test
+	void messageMustBeRenderedOnce() {
+		AtomicInteger explained = new AtomicInteger();
+		UnresolvablePackageException exception = new UnresolvablePackageException(PackageResolution.unresolved(
+			DistributionSamples.Representative.UNRESOLVABLE.distribution(), () -> "explanation " + explained.incrementAndGet()));
+
+		assertThat(explained.get()).isEqualTo(0);
+		assertThat(exception.getMessage()).endsWith("explanation 1");
+		assertThat(exception.getMessage()).endsWith("explanation 1");
+		assertThat(explained.get()).isEqualTo(1);
+	}
+
+	@Test
+	void deserializedExceptionMustKeepMessage() throws IOException, ClassNotFoundException {
+		UnresolvablePackageException exception = new UnresolvablePackageException(
+			new PlatformPackageResolver(Command.MongoD).resolve(DistributionSamples.Representative.UNRESOLVABLE.distribution()));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(exception);
+		}
+		UnresolvablePackageException deserialized;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			deserialized = (UnresolvablePackageException) in.readObject();
+		}
+
+		assertThat(deserialized.getMessage())
+			.startsWith("could not resolve package for ")
+			.isEqualTo(exception.getMessage());
+		assertThat(deserialized.resolution()).isNull();
+	}
+}
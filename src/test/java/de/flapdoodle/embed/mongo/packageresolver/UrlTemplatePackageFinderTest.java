@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.config.store.FileSet;
+import de.flapdoodle.embed.process.config.store.FileType;
+import de.flapdoodle.embed.process.config.store.Package;
+import de.flapdoodle.embed.process.distribution.ArchiveType;
+import de.flapdoodle.embed.process.distribution.Distribution;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.os.CommonArchitecture;
+import de.flapdoodle.os.CommonOS;
+import de.flapdoodle.os.ImmutablePlatform;
+import de.flapdoodle.os.Platform;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlTemplatePackageFinderTest {
+
+	private final Platform platform = ImmutablePlatform.builder()
+		.operatingSystem(CommonOS.Linux)
+		.architecture(CommonArchitecture.X86_64)
+		.build();
+
+	private final UrlTemplatePackageFinder testee = UrlTemplatePackageFinder.builder()
+		.fileSet(FileSet.builder().addEntry(FileType.Executable, "mongod").build())
+		.archiveType(ArchiveType.TGZ)
+		.urlTemplate("/linux/mongodb-linux-x86_64-{version}.tgz")
+		.build();
+
+	@Test
+	void sameVersionMustReturnSamePackage() {
+		Package first = testee.packageFor(Distribution.of(Version.of("4.4.1"), platform)).get();
+		Package second = testee.packageFor(Distribution.of(Version.of("4.4.1"), platform)).get();
+		Package other = testee.packageFor(Distribution.of(Version.of("4.4.2"), platform)).get();
+
+		assertThat(first.url()).isEqualTo("/linux/mongodb-linux-x86_64-4.4.1.tgz");
+		assertThat(second).isSameAs(first);
+		assertThat(other.url()).isEqualTo("/linux/mongodb-linux-x86_64-4.4.2.tgz");
+	}
+
+	@Test
+	void differentFileSetMustNotShareCachedPackages() {
+		Package mongod = testee.packageFor(Distribution.of(Version.of("4.4.1"), platform)).get();
+		Package mongos = testee.withFileSet(FileSet.builder().addEntry(FileType.Executable, "mongos").build())
+			.packageFor(Distribution.of(Version.of("4.4.1"), platform)).get();
+
+		assertThat(mongos.url()).isEqualTo(mongod.url());
+		assertThat(mongos.fileSet()).isNotEqualTo(mongod.fileSet());
+	}
+
+	@Test
+	void cachedPackagesMustNotChangeEquality() {
+		testee.packageFor(Distribution.of(Version.of("4.4.1"), platform));
+
+		assertThat(testee).isEqualTo(UrlTemplatePackageFinder.builder().from(testee).build());
+		assertThat(testee.hashCode()).isEqualTo(UrlTemplatePackageFinder.builder().from(testee).build().hashCode());
+		assertThat(testee.toString()).doesNotContain("packages");
+	}
+}
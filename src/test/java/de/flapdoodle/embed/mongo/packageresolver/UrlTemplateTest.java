@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlTemplateTest {
+
+	@Test
+	void renderVersionAndToolsVersion() {
+		UrlTemplate testee = UrlTemplate.compile("/tools/{version}/db-{tools.version}-{version}.tgz");
+
+		assertThat(testee.usesToolsVersion()).isTrue();
+		assertThat(testee.render("4.4.1", "100.2.0")).isEqualTo("/tools/4.4.1/db-100.2.0-4.4.1.tgz");
+	}
+
+	@Test
+	void toolsVersionPlaceholderMustBeKeptIfNotSet() {
+		UrlTemplate testee = UrlTemplate.compile("/linux/mongodb-{tools.version}.tgz");
+
+		assertThat(testee.render("4.4.1", null)).isEqualTo("/linux/mongodb-{tools.version}.tgz");
+	}
+
+	@Test
+	void templateWithoutPlaceholderOrUnknownPlaceholder() {
+		assertThat(UrlTemplate.compile("/static.zip").render("1.0.0", null)).isEqualTo("/static.zip");
+		assertThat(UrlTemplate.compile("{os}/{version}{").render("1.0.0", null)).isEqualTo("{os}/1.0.0{");
+		assertThat(UrlTemplate.compile("{version}").usesToolsVersion()).isFalse();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2011
+ *   Michael Mosmann <michael@mosmann.de>
+ *   Martin Jöhren <m.joehren@googlemail.com>
+ *
+ * with contributions from
+ * 	konstantin-ba@github,Archimedes Trajano	(trajano@github)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.embed.mongo.packageresolver;
+
+import de.flapdoodle.embed.process.distribution.Version;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionRangeSetTest {
+
+	private static final List<String> SAMPLES = Arrays.asList(
+		"2.6.0", "3.3.1", "3.4.0", "3.4.6", "3.4.7", "3.4.8", "3.4.9", "3.4.24", "3.4.25", "4.0.0", "6.0.9", "6.0.9-rc1", "6.0.9-rc2",
+		"7.0.0", "7.0.0-rc1", "7.0.0-rc10", "7.0.1", "100.0.0", "100.0.0-alpha1", "100.0.1", "100.0.2", "100.0.3", "latest"
+	);
+
+	@Test
+	public void anyOfVersionRangesMustBeVersionRangeSet() {
+		assertThat(DistributionMatch.any(VersionRange.of("1.0.0"), VersionRange.of("2.0.0")))
+			.isInstanceOf(VersionRangeSet.class);
+		assertThat(DistributionMatch.any(ToolVersionRange.of("1.0.0"), VersionRange.of("2.0.0")))
+			.isInstanceOf(VersionRangeSet.class);
+		assertThat(DistributionMatch.any(VersionRange.of("1.0.0"), PlatformMatch.any()))
+			.isNotInstanceOf(VersionRangeSet.class);
+	}
+
+	@Test
+	public void versionRangeSetMustMatchLikeAny() {
+		List<DistributionMatch> ranges = Arrays.asList(
+			VersionRange.of("3.4.9", "3.4.24"),
+			VersionRange.of("3.4.0", "3.4.7"),
+			VersionRange.of("3.3.1"),
+			VersionRange.of("3.4.5", "3.4.6"),
+			VersionRange.of("6.0.9-rc1"),
+			VersionRange.of("7.0.0-rc10"),
+			VersionRange.of("7.0.0", "7.0.2"),
+			VersionRange.of("100.0.0-alpha1", "100.0.2")
+		);
+
+		VersionRangeSet versionRangeSet = VersionRangeSet.of(ranges).get();
+		DistributionMatch.Any any = new DistributionMatch.Any(ranges);
+
+		SAMPLES.forEach(sample -> {
+			Version version = Version.of(sample);
+			assertThat(versionRangeSet.match(version))
+				.describedAs("%s", sample)
+				.isEqualTo(any.matcher().stream().anyMatch(it -> ((VersionRange) it).match(version)));
+		});
+	}
+
+	@Test
+	public void toolVersionRangeSetMustMatchLikeAny() {
+		List<DistributionMatch> ranges = Arrays.asList(
+			ToolVersionRange.of("100.9.0"),
+			ToolVersionRange.of("100.7.0", "100.7.5"),
+			ToolVersionRange.of("100.6.0", "100.6.1"),
+			ToolVersionRange.of("100.0.0-alpha1", "100.0.2")
+		);
+
+		VersionRangeSet versionRangeSet = VersionRangeSet.of(ranges).get();
+
+		SAMPLES.forEach(sample -> {
+			Version version = DistributionSamples.ToolsVersion.of(Version.of(sample));
+			assertThat(versionRangeSet.match(version))
+				.describedAs("%s", sample)
+				.isEqualTo(ranges.stream().anyMatch(it -> ((ToolVersionRange) it).match(version)));
+		});
+		assertThat(versionRangeSet.match(Version.of("100.9.0"))).isFalse();
+	}
+
+	@Test
+	public void rangesWithoutGapMustBeJoined() {
+		List<DistributionMatch> ranges = Arrays.asList(
+			VersionRange.of("3.0.0", "3.0.15"),
+			VersionRange.of("3.2.0", "3.2.22"),
+			VersionRange.of("3.0.16", "3.0.20"),
+			VersionRange.of("3.0.10", "3.0.12"),
+			VersionRange.of("3.4.9", "3.4.24"),
+			VersionRange.of("3.4.0", "3.4.7"),
+			VersionRange.of("6.0.9-rc1"),
+			VersionRange.of("6.0.9-rc1"),
+			VersionRange.of("6.0.8", "6.0.9"),
+			ToolVersionRange.of("100.7.0", "100.7.5"),
+			ToolVersionRange.of("100.7.6"),
+			ToolVersionRange.of("100.7.3", "100.8.0"),
+			ToolVersionRange.of("100.9.0")
+		);
+
+		VersionRangeSet versionRangeSet = VersionRangeSet.of(ranges).get();
+
+		assertThat(versionRangeSet.matcher()).containsExactly(
+			VersionRange.of("3.0.0", "3.0.20"),
+			VersionRange.of("3.2.0", "3.2.22"),
+			VersionRange.of("3.4.9", "3.4.24"),
+			VersionRange.of("3.4.0", "3.4.7"),
+			VersionRange.of("6.0.9-rc1"),
+			VersionRange.of("6.0.8", "6.0.9"),
+			ToolVersionRange.of("100.7.0", "100.8.0"),
+			ToolVersionRange.of("100.9.0")
+		);
+
+		Arrays.asList("3.0.0", "3.0.15", "3.0.16", "3.0.16-rc1", "3.0.21", "3.1.0", "3.4.8", "6.0.9-rc1", "6.0.9-rc2", "6.0.9")
+			.forEach(sample -> {
+				Version version = Version.of(sample);
+				assertThat(versionRangeSet.match(version))
+					.describedAs("%s", sample)
+					.isEqualTo(ranges.stream()
+						.filter(it -> it instanceof VersionRange)
+						.anyMatch(it -> ((VersionRange) it).match(version)));
+			});
+
+		List<DistributionMatch> toolVersionRanges = ranges.stream()
+			.filter(it -> it instanceof ToolVersionRange)
+			.collect(Collectors.toList());
+		VersionRangeSet toolVersionRangeSet = VersionRangeSet.of(toolVersionRanges).get();
+		Arrays.asList("100.7.5", "100.7.5-rc1", "100.7.6", "100.8.0", "100.8.1", "100.9.0")
+			.forEach(sample -> {
+				Version version = DistributionSamples.ToolsVersion.of(Version.of(sample));
+				assertThat(toolVersionRangeSet.match(version))
+					.describedAs("%s", sample)
+					.isEqualTo(toolVersionRanges.stream().anyMatch(it -> ((ToolVersionRange) it).match(version)));
+			});
+	}
+
+	@Test
+	public void rangesWhichCanNotBeJoinedMustBeUnchanged() {
+		List<DistributionMatch> ranges = Arrays.asList(
+			VersionRange.of("3.4.9", "3.4.24"),
+			VersionRange.of("3.4.0", "3.4.7"),
+			VersionRange.of("3.2.0", "3.2.22"),
+			VersionRange.of("3.0.0", "3.0.15"),
+			VersionRange.of("100.0.0-alpha1", "100.0.2"),
+			VersionRange.of("100.0.3", "100.0.5"),
+			ToolVersionRange.of("100.7.0", "100.7.5"),
+			ToolVersionRange.of("100.7.6")
+		);
+
+		assertThat(VersionRangeSet.of(ranges).get().matcher()).isEqualTo(ranges);
+	}
+}